@@ -0,0 +1,60 @@
+package benchmarks;
+
+import game.Asteroid;
+import game.RandomGenerator;
+import game.SpaceConfiguration;
+import game.Spaceship;
+import org.openjdk.jmh.annotations.*;
+import tools.Vector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moving an asteroid, and testing its collision with the spaceship, with
+ * its contact points or with their convex hull.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsteroidBenchmark {
+
+  private Asteroid asteroid;
+  private Asteroid nearAsteroid;
+  private Asteroid farAsteroid;
+  private Spaceship spaceship;
+
+  @Param({"false", "true"})
+  public boolean hull;
+
+  @Setup
+  public void setup() {
+    RandomGenerator generator = new RandomGenerator(SpaceConfiguration.DEFAULT, 0);
+    asteroid = generator.asteroid(new Vector(100, 100), 2);
+    spaceship = new Spaceship();
+    // past the initial invulnerability, so that collisions are tested
+    spaceship.update(5);
+    spaceship.setHullCollisionEnabled(hull);
+    Vector shipPosition = spaceship.getPosition();
+    nearAsteroid = generator.asteroid(shipPosition.add(new Vector(45, 0)), 2);
+    farAsteroid = generator.asteroid(shipPosition.add(new Vector(300, 0)), 2);
+  }
+
+  @Benchmark
+  public Asteroid update() {
+    asteroid.update(1e-3);
+    return asteroid;
+  }
+
+  @Benchmark
+  public boolean spaceshipCollidesNear() {
+    return spaceship.collides(nearAsteroid);
+  }
+
+  @Benchmark
+  public boolean spaceshipCollidesFar() {
+    return spaceship.collides(farAsteroid);
+  }
+}
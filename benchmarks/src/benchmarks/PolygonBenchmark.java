@@ -0,0 +1,75 @@
+package benchmarks;
+
+import game.RandomGenerator;
+import game.SpaceConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.Polygon;
+import tools.Vector;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-polygon tests and transformations of asteroid-like polygons.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolygonBenchmark {
+
+  private static final int POINT_COUNT = 1024;
+
+  private Polygon polygon;
+  private final Vector[] points = new Vector[POINT_COUNT];
+  private final Vector translation = new Vector(400, 300);
+  private int next = 0;
+  private double[] xs;
+  private double[] ys;
+
+  @Setup
+  public void setup() {
+    polygon = new RandomGenerator(SpaceConfiguration.DEFAULT, 0).polygon(5, 12, 2);
+    xs = new double[polygon.nbVertices()];
+    ys = new double[polygon.nbVertices()];
+    Random random = new Random(0);
+    for (int i = 0; i < POINT_COUNT; i++) {
+      points[i] = new Vector(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50);
+    }
+  }
+
+  private Vector nextPoint() {
+    next = (next + 1) & (POINT_COUNT - 1);
+    return points[next];
+  }
+
+  @Benchmark
+  public boolean contains() {
+    return polygon.contains(nextPoint());
+  }
+
+  @Benchmark
+  public boolean containsByWindingAngle() {
+    return polygon.containsByWindingAngle(nextPoint());
+  }
+
+  @Benchmark
+  public Polygon rotate() {
+    return polygon.rotate(37);
+  }
+
+  @Benchmark
+  public Polygon translate() {
+    return polygon.translate(translation);
+  }
+
+  @Benchmark
+  public void rotateAndTranslateInto(Blackhole blackhole) {
+    polygon.rotateAndTranslateInto(37, 400, 300, xs, ys);
+    blackhole.consume(xs);
+    blackhole.consume(ys);
+  }
+}
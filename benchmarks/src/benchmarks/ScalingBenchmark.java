@@ -0,0 +1,75 @@
+package benchmarks;
+
+import game.ArrayAsteroidStore;
+import game.AsteroidStore;
+import game.ListAsteroidStore;
+import game.Projectile;
+import game.Space;
+import game.SpaceConfiguration;
+import org.openjdk.jmh.annotations.*;
+import tools.Vector;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of a second of game of full updates for large asteroid fields.
+ * The space grows with the number of asteroids to keep the density of
+ * the default game, with one projectile for every ten asteroids, so that
+ * a near-linear update shows as a time proportional to the asteroid
+ * count. Each iteration starts from a new space and runs a fixed number
+ * of ticks, shorter than the life of a projectile, so that every
+ * asteroid count is measured under the same load rather than in a space
+ * whose projectiles have expired.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = ScalingBenchmark.TICKS)
+@Measurement(iterations = 20, batchSize = ScalingBenchmark.TICKS)
+@Fork(1)
+public class ScalingBenchmark {
+
+  static final int TICKS = 60;
+  private static final double DT = 1. / TICKS;
+
+  @Param({"100", "1000", "10000", "100000"})
+  public int asteroidCount;
+
+  @Param({"list", "arrays"})
+  public String store;
+
+  @Param({"1", "4"})
+  public int parallelism;
+
+  private Space space;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    SpaceConfiguration configuration =
+      SpaceConfiguration.DEFAULT.withSameDensity(asteroidCount);
+    AsteroidStore asteroids = store.equals("arrays") ?
+      new ArrayAsteroidStore(configuration) :
+      new ListAsteroidStore();
+    space = new Space(configuration, asteroids, 0);
+    space.setParallelism(parallelism);
+    Random random = new Random(0);
+    for (int i = 0; i < asteroidCount / 10; i++) {
+      Vector position = new Vector(random.nextDouble() * configuration.getWidth(),
+                                   random.nextDouble() * configuration.getHeight());
+      Vector velocity = new Vector(random.nextGaussian() * 100, random.nextGaussian() * 100);
+      space.addProjectile(new Projectile(position, velocity));
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    space.setParallelism(1);
+  }
+
+  @Benchmark
+  public Space tick() {
+    space.update(DT);
+    return space;
+  }
+}
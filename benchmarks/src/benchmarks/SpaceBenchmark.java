@@ -0,0 +1,67 @@
+package benchmarks;
+
+import game.ArrayAsteroidStore;
+import game.AsteroidStore;
+import game.ListAsteroidStore;
+import game.Projectile;
+import game.Space;
+import game.SpaceConfiguration;
+import org.openjdk.jmh.annotations.*;
+import tools.Vector;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full update of a space, for various numbers of asteroids and
+ * projectiles. The space is rebuilt before each iteration, since asteroids
+ * get destroyed and projectiles expire over time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpaceBenchmark {
+
+  private static final double DT = 1. / 60;
+
+  @Param({"10", "100", "1000"})
+  public int asteroidCount;
+
+  @Param({"0", "100", "1000"})
+  public int projectileCount;
+
+  @Param({"list", "arrays"})
+  public String store;
+
+  @Param({"true", "false"})
+  public boolean broadPhase;
+
+  private Space space;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    AsteroidStore asteroids =
+      store.equals("arrays") ? new ArrayAsteroidStore() : new ListAsteroidStore();
+    space = new Space(SpaceConfiguration.DEFAULT, asteroids, 0);
+    space.setBroadPhaseEnabled(broadPhase);
+    while (asteroids.size() < asteroidCount) {
+      asteroids.add(space.generateInitialAsteroid());
+    }
+    Random random = new Random(0);
+    for (int i = 0; i < projectileCount; i++) {
+      Vector position = new Vector(random.nextDouble() * space.getConfiguration().getWidth(),
+                                   random.nextDouble() * space.getConfiguration().getHeight());
+      Vector velocity = new Vector(random.nextGaussian() * 100, random.nextGaussian() * 100);
+      space.addProjectile(new Projectile(position, velocity));
+    }
+  }
+
+  @Benchmark
+  public Space update() {
+    space.update(DT);
+    return space;
+  }
+}
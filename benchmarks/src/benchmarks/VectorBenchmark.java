@@ -0,0 +1,32 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tools.Vector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Elementary vector operations used in every tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorBenchmark {
+
+  private Vector vector = new Vector(3, 4);
+  private Vector other = new Vector(-2, 5);
+  private double degrees = 37;
+
+  @Benchmark
+  public Vector rotate() {
+    return vector.rotate(degrees);
+  }
+
+  @Benchmark
+  public double angleWith() {
+    return vector.angleWith(other);
+  }
+}
@@ -0,0 +1,243 @@
+package game;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An asteroid store keeping the positions, velocities, angles, angular
+ * velocities and sizes of its asteroids in parallel arrays of doubles
+ * (a structure of arrays), so that moving every asteroid is a tight loop
+ * over contiguous primitive values. The asteroid objects are still
+ * available, but act as handles to their slot in the arrays while they
+ * are in the store.
+ */
+public class ArrayAsteroidStore implements AsteroidStore {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private double[] positionXs = new double[INITIAL_CAPACITY];
+  private double[] positionYs = new double[INITIAL_CAPACITY];
+  private double[] velocityXs = new double[INITIAL_CAPACITY];
+  private double[] velocityYs = new double[INITIAL_CAPACITY];
+  private double[] angles = new double[INITIAL_CAPACITY];
+  private double[] previousXs = new double[INITIAL_CAPACITY];
+  private double[] previousYs = new double[INITIAL_CAPACITY];
+  private double[] previousAngles = new double[INITIAL_CAPACITY];
+  private double[] angularVelocities = new double[INITIAL_CAPACITY];
+  private double[] sizes = new double[INITIAL_CAPACITY];
+  private Asteroid[] asteroids = new Asteroid[INITIAL_CAPACITY];
+
+  /**
+   * The number of slots in use, at the beginning of the arrays.
+   */
+  private int count = 0;
+
+  private final List<Asteroid> view = new View();
+
+  /**
+   * The space in which the asteroids of the store move.
+   */
+  private final SpaceConfiguration configuration;
+
+  public ArrayAsteroidStore() {
+    this(SpaceConfiguration.DEFAULT);
+  }
+
+  /**
+   * @param configuration the space in which the asteroids of the store move
+   */
+  public ArrayAsteroidStore(SpaceConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
+
+  @Override
+  public List<Asteroid> asList() {
+    return view;
+  }
+
+  @Override
+  public int size() {
+    return count;
+  }
+
+  @Override
+  public void add(Asteroid asteroid) {
+    if (asteroid.getStore() != null) {
+      throw new IllegalArgumentException("asteroid already in a store");
+    }
+    ensureCapacity(count + 1);
+    positionXs[count] = asteroid.getPositionX();
+    positionYs[count] = asteroid.getPositionY();
+    velocityXs[count] = asteroid.getVelocity().getX();
+    velocityYs[count] = asteroid.getVelocity().getY();
+    angles[count] = asteroid.getAngle();
+    previousXs[count] = asteroid.getPreviousPositionX();
+    previousYs[count] = asteroid.getPreviousPositionY();
+    previousAngles[count] = asteroid.getPreviousAngle();
+    angularVelocities[count] = asteroid.getAngularVelocity();
+    sizes[count] = asteroid.getSize();
+    asteroids[count] = asteroid;
+    asteroid.attach(this, count);
+    count++;
+  }
+
+  @Override
+  public void removeAll(Collection<Asteroid> removed) {
+    int firstEmptySlot = count;
+    for (Asteroid asteroid : removed) {
+      if (asteroid.getStore() == this) {
+        firstEmptySlot = Math.min(firstEmptySlot, asteroid.getSlot());
+        asteroids[asteroid.getSlot()] = null;
+        asteroid.detach();
+      }
+    }
+    if (firstEmptySlot < count) {
+      compact(firstEmptySlot);
+    }
+  }
+
+  /**
+   * Moves the remaining asteroids down to fill the empty slots,
+   * keeping their order.
+   *
+   * @param firstEmptySlot the first slot emptied, the asteroids before
+   *                       it stay in place
+   */
+  private void compact(int firstEmptySlot) {
+    int kept = firstEmptySlot;
+    for (int slot = firstEmptySlot; slot < count; slot++) {
+      if (asteroids[slot] == null) {
+        continue;
+      }
+      if (slot != kept) {
+        positionXs[kept] = positionXs[slot];
+        positionYs[kept] = positionYs[slot];
+        velocityXs[kept] = velocityXs[slot];
+        velocityYs[kept] = velocityYs[slot];
+        angles[kept] = angles[slot];
+        previousXs[kept] = previousXs[slot];
+        previousYs[kept] = previousYs[slot];
+        previousAngles[kept] = previousAngles[slot];
+        angularVelocities[kept] = angularVelocities[slot];
+        sizes[kept] = sizes[slot];
+        asteroids[kept] = asteroids[slot];
+        asteroids[kept].moveTo(kept);
+      }
+      kept++;
+    }
+    Arrays.fill(asteroids, kept, count, null);
+    count = kept;
+  }
+
+  @Override
+  public void update(double dt) {
+    update(0, count, dt);
+  }
+
+  @Override
+  public void update(int from, int to, double dt) {
+    for (int slot = from; slot < to; slot++) {
+      update(slot, dt);
+    }
+  }
+
+  /**
+   * Moves a single asteroid of the store.
+   *
+   * @param slot the index of the asteroid
+   * @param dt   the time delay to simulate.
+   */
+  void update(int slot, double dt) {
+    previousXs[slot] = positionXs[slot];
+    previousYs[slot] = positionYs[slot];
+    previousAngles[slot] = angles[slot];
+    positionXs[slot] = configuration.toricRemapX(positionXs[slot] + velocityXs[slot] * dt);
+    positionYs[slot] = configuration.toricRemapY(positionYs[slot] + velocityYs[slot] * dt);
+    angles[slot] = angles[slot] + angularVelocities[slot] * dt;
+  }
+
+  @Override
+  public double getPositionX(int slot) {
+    return positionXs[slot];
+  }
+
+  @Override
+  public double getPositionY(int slot) {
+    return positionYs[slot];
+  }
+
+  double getVelocityX(int slot) {
+    return velocityXs[slot];
+  }
+
+  double getVelocityY(int slot) {
+    return velocityYs[slot];
+  }
+
+  double getAngle(int slot) {
+    return angles[slot];
+  }
+
+  double getPreviousPositionX(int slot) {
+    return previousXs[slot];
+  }
+
+  double getPreviousPositionY(int slot) {
+    return previousYs[slot];
+  }
+
+  double getPreviousAngle(int slot) {
+    return previousAngles[slot];
+  }
+
+  double getAngularVelocity(int slot) {
+    return angularVelocities[slot];
+  }
+
+  double getSize(int slot) {
+    return sizes[slot];
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= asteroids.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, 2 * asteroids.length);
+    positionXs = Arrays.copyOf(positionXs, newCapacity);
+    positionYs = Arrays.copyOf(positionYs, newCapacity);
+    velocityXs = Arrays.copyOf(velocityXs, newCapacity);
+    velocityYs = Arrays.copyOf(velocityYs, newCapacity);
+    angles = Arrays.copyOf(angles, newCapacity);
+    previousXs = Arrays.copyOf(previousXs, newCapacity);
+    previousYs = Arrays.copyOf(previousYs, newCapacity);
+    previousAngles = Arrays.copyOf(previousAngles, newCapacity);
+    angularVelocities = Arrays.copyOf(angularVelocities, newCapacity);
+    sizes = Arrays.copyOf(sizes, newCapacity);
+    asteroids = Arrays.copyOf(asteroids, newCapacity);
+  }
+
+
+  /**
+   * Read-only list of the asteroids in the store.
+   */
+  private class View extends AbstractList<Asteroid> implements RandomAccess {
+
+    @Override
+    public Asteroid get(int index) {
+      if (index < 0 || index >= count) {
+        throw new IndexOutOfBoundsException(index);
+      }
+      return asteroids[index];
+    }
+
+    @Override
+    public int size() {
+      return count;
+    }
+  }
+
+}
@@ -1,8 +1,13 @@
 package game;
 
+import tools.MutableVector;
+import tools.ObjectPool;
 import tools.Polygon;
+import tools.Rotation;
+import tools.SeparatingAxis;
 import tools.Vector;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,7 +22,7 @@ public class  Asteroid {
   /**
    * The position of the center of the asteroid.
    */
-  private Vector position;
+  private final MutableVector position;
 
   /**
    * The velocity of the center of the asteroid.
@@ -29,41 +34,150 @@ public class  Asteroid {
    */
   private double angle;
 
+  /**
+   * The position and angle of the asteroid before the last update, used
+   * to draw it between two simulated states.
+   */
+  private final MutableVector previousPosition;
+  private double previousAngle;
+
   /**
    * The angle in degree by which the asteroid rotates each second.
    */
   private double angularVelocity;
 
   /**
-   * The shape of the asteroid, the center of the asteroid is the
-   * center of its shape.
+   * The shape of the asteroid before scaling, the center of the asteroid
+   * is the center of its shape. It is usually shared with other asteroids.
+   */
+  private Polygon shape;
+
+  /**
+   * The factor by which the shape is scaled.
    */
-  private final Polygon shape;
+  private double scale;
+
+  /**
+   * The largest distance from the center of the asteroid to its boundary.
+   */
+  private double radius;
 
   /**
    * The size of the asteroid (in an arbitrary but fixed unit)
    */
-  private final double size;
+  private double size;
+
+  /**
+   * The coordinates of the vertices of the shape, rotated and translated
+   * to the current angle and position of the asteroid. They are only
+   * recomputed when needed after the asteroid has moved. They may be
+   * longer than the shape, after a reset with a shape with fewer vertices.
+   */
+  private double[] worldXs = new double[0];
+  private double[] worldYs = new double[0];
+
+  /**
+   * The position and angle for which worldXs and worldYs were computed.
+   */
+  private double worldShapeX = Double.NaN;
+  private double worldShapeY = Double.NaN;
+  private double worldShapeAngle = Double.NaN;
+
+  /**
+   * The rotation of the shape to its current angle, whose cosine and sine
+   * are only recomputed when the angle changes.
+   */
+  private final Rotation rotation = new Rotation();
+
+  /**
+   * The shape returned by getShape, built from worldXs and worldYs,
+   * or null if not built since the asteroid last moved.
+   */
+  private Polygon worldShape;
+
+  /**
+   * The space in which the asteroid moves.
+   */
+  private final SpaceConfiguration configuration;
+
+  /**
+   * The store holding the position, velocity and angles of this asteroid
+   * while it belongs to an ArrayAsteroidStore, null otherwise. While the
+   * asteroid is in such a store, the fields position, velocity, angle and
+   * angularVelocity are not kept up to date.
+   */
+  private ArrayAsteroidStore store;
+
+  /**
+   * The index of this asteroid in its store.
+   */
+  private int slot;
 
   /**
    * @return the position of the center of the asteroid.
    */
   public Vector getPosition() {
-    return position;
+    return (store == null) ?
+      position.toVector() :
+      new Vector(store.getPositionX(slot), store.getPositionY(slot));
+  }
+
+  /**
+   * @return the abscissa of the center of the asteroid.
+   */
+  public double getPositionX() {
+    return (store == null) ? position.getX() : store.getPositionX(slot);
+  }
+
+  /**
+   * @return the ordinate of the center of the asteroid.
+   */
+  public double getPositionY() {
+    return (store == null) ? position.getY() : store.getPositionY(slot);
   }
 
   /**
    * @return the velocity of the center of the asteroid.
    */
   public Vector getVelocity() {
-    return velocity;
+    return (store == null) ?
+      velocity :
+      new Vector(store.getVelocityX(slot), store.getVelocityY(slot));
+  }
+
+  /**
+   * @return the rotation of the asteroid since its creation, in degree.
+   */
+  public double getAngle() {
+    return (store == null) ? angle : store.getAngle(slot);
+  }
+
+  /**
+   * @return the abscissa of the center of the asteroid before the last update.
+   */
+  public double getPreviousPositionX() {
+    return (store == null) ? previousPosition.getX() : store.getPreviousPositionX(slot);
+  }
+
+  /**
+   * @return the ordinate of the center of the asteroid before the last update.
+   */
+  public double getPreviousPositionY() {
+    return (store == null) ? previousPosition.getY() : store.getPreviousPositionY(slot);
+  }
+
+  /**
+   * @return the angle of the asteroid before the last update.
+   */
+  public double getPreviousAngle() {
+    return (store == null) ? previousAngle : store.getPreviousAngle(slot);
   }
 
   /**
    * @return the angular velocity of the asteroid around its angle.
    */
   public double getAngularVelocity() {
-    return angularVelocity;
+    return (store == null) ? angularVelocity : store.getAngularVelocity(slot);
   }
 
   /**
@@ -77,7 +191,50 @@ public class  Asteroid {
    * @return the shape of the asteroid, with same center as the asteroid.
    */
   public Polygon getShape() {
-    return shape.rotate(angle).translate(position);
+    updateWorldShape();
+    if (worldShape == null) {
+      List<Vector> vertices = new ArrayList<>(shape.nbVertices());
+      for (int i = 0; i < shape.nbVertices(); i++) {
+        vertices.add(new Vector(worldXs[i], worldYs[i]));
+      }
+      worldShape = new Polygon(vertices);
+    }
+    return worldShape;
+  }
+
+  /**
+   * @return the number of vertices of the shape of the asteroid.
+   */
+  public int nbVertices() {
+    return shape.nbVertices();
+  }
+
+  /**
+   * @return the shape of the asteroid, centered on (0,0), not rotated, and
+   * not scaled.
+   */
+  Polygon getLocalShape() {
+    return shape;
+  }
+
+  /**
+   * @return the factor by which the local shape is scaled.
+   */
+  double getScale() {
+    return scale;
+  }
+
+  private void updateWorldShape() {
+    double x = getPositionX();
+    double y = getPositionY();
+    double angle = getAngle();
+    if (x != worldShapeX || y != worldShapeY || angle != worldShapeAngle) {
+      shape.scaleRotateAndTranslateInto(scale, rotation.setAngle(angle), x, y, worldXs, worldYs);
+      worldShapeX = x;
+      worldShapeY = y;
+      worldShapeAngle = angle;
+      worldShape = null;
+    }
   }
 
 
@@ -93,12 +250,88 @@ public class  Asteroid {
                   Vector velocity,
                   double angularVelocity,
                   double size) {
-    this.position = center;
+    this(SpaceConfiguration.DEFAULT, center, shape, velocity, angularVelocity, size);
+  }
+
+  /**
+   * @param configuration   the space in which the asteroid moves
+   * @param center          the center of the asteroid
+   * @param shape           the shape with center (0,0) of the asteroid
+   * @param velocity        the velocity (in pixel per second) of the asteroid
+   * @param angularVelocity the angular velocity (in degree per second) of the asteroid
+   * @param size            the relative size of the asteroid.
+   */
+  public Asteroid(SpaceConfiguration configuration,
+                  Vector center,
+                  Polygon shape,
+                  Vector velocity,
+                  double angularVelocity,
+                  double size) {
+    this(configuration, center, shape, 1, velocity, angularVelocity, size);
+  }
+
+  /**
+   * @param configuration   the space in which the asteroid moves
+   * @param center          the center of the asteroid
+   * @param shape           the shape with center (0,0) of the asteroid,
+   *                        before scaling, possibly shared
+   * @param scale           the factor by which the shape is scaled
+   * @param velocity        the velocity (in pixel per second) of the asteroid
+   * @param angularVelocity the angular velocity (in degree per second) of the asteroid
+   * @param size            the relative size of the asteroid.
+   */
+  public Asteroid(SpaceConfiguration configuration,
+                  Vector center,
+                  Polygon shape,
+                  double scale,
+                  Vector velocity,
+                  double angularVelocity,
+                  double size) {
+    this.configuration = configuration;
+    this.position = new MutableVector(center);
+    this.previousPosition = new MutableVector(center);
+    reset(center, shape, scale, velocity, angularVelocity, size);
+  }
+
+  /**
+   * Turns this asteroid into a new one, as if it had just been created
+   * with the same configuration, so that it can be reused once it has
+   * been removed from space. It must not be in a store.
+   *
+   * @param center          the center of the asteroid
+   * @param shape           the shape with center (0,0) of the asteroid,
+   *                        before scaling, possibly shared
+   * @param scale           the factor by which the shape is scaled
+   * @param velocity        the velocity (in pixel per second) of the asteroid
+   * @param angularVelocity the angular velocity (in degree per second) of the asteroid
+   * @param size            the relative size of the asteroid.
+   * @return this asteroid
+   */
+  Asteroid reset(Vector center,
+                 Polygon shape,
+                 double scale,
+                 Vector velocity,
+                 double angularVelocity,
+                 double size) {
+    this.position.set(center);
+    this.previousPosition.set(center);
     this.shape = shape;
+    this.scale = scale;
+    this.radius = scale * shape.getRadius();
     this.angle = 0;
+    this.previousAngle = 0;
     this.velocity = velocity;
     this.angularVelocity = angularVelocity;
     this.size = size;
+    if (worldXs.length < shape.nbVertices()) {
+      this.worldXs = new double[shape.nbVertices()];
+      this.worldYs = new double[shape.nbVertices()];
+    }
+    this.worldShapeX = Double.NaN;
+    this.worldShapeY = Double.NaN;
+    this.worldShapeAngle = Double.NaN;
+    this.worldShape = null;
+    return this;
   }
 
 
@@ -110,25 +343,280 @@ public class  Asteroid {
    * @param dt the time delay to simulate.
    */
   public void update(double dt) {
-    position = position.add(velocity.multiply(dt));
-    position = Space.toricRemap(position);
+    if (store != null) {
+      store.update(slot, dt);
+      return;
+    }
+    previousPosition.set(position.getX(), position.getY());
+    previousAngle = angle;
+    position.scaleAddInPlace(dt, velocity);
+    configuration.toricRemap(position);
     angle = angle + angularVelocity * dt;
   }
 
+  /**
+   * Hands the state of the asteroid over to a store.
+   *
+   * @param store the store now holding the state of the asteroid
+   * @param slot  the index of the asteroid in the store
+   */
+  void attach(ArrayAsteroidStore store, int slot) {
+    this.store = store;
+    this.slot = slot;
+  }
+
+  /**
+   * Takes the state of the asteroid back from its store.
+   */
+  void detach() {
+    position.set(getPositionX(), getPositionY());
+    previousPosition.set(getPreviousPositionX(), getPreviousPositionY());
+    previousAngle = getPreviousAngle();
+    velocity = getVelocity();
+    angle = getAngle();
+    angularVelocity = getAngularVelocity();
+    store = null;
+  }
+
+  /**
+   * @return the store holding the state of the asteroid, or null.
+   */
+  ArrayAsteroidStore getStore() {
+    return store;
+  }
+
+  /**
+   * @return the index of the asteroid in its store.
+   */
+  int getSlot() {
+    return slot;
+  }
+
+  /**
+   * @param slot the new index of the asteroid in its store
+   */
+  void moveTo(int slot) {
+    this.slot = slot;
+  }
+
+  /**
+   * @return the largest distance from the center of the asteroid to its
+   * boundary.
+   */
+  public double getRadius() {
+    return radius;
+  }
+
   public boolean contains(Vector point) {
-    return getShape().contains(point);
+    return contains(point.getX(), point.getY());
+  }
+
+  /**
+   * @param x the abscissa of a point
+   * @param y the ordinate of a point
+   * @return whether the point is inside the asteroid
+   */
+  public boolean contains(double x, double y) {
+    updateWorldShape();
+    return Polygon.contains(worldXs, worldYs, shape.nbVertices(), x, y);
+  }
+
+  /**
+   * Same as contains for several points, with the world shape of the
+   * asteroid brought up to date only once.
+   *
+   * @param xs    the abscissas of the points
+   * @param ys    the ordinates of the points
+   * @param count the number of points to consider in xs and ys
+   * @return whether at least one of the points is inside the asteroid
+   */
+  public boolean containsAny(double[] xs, double[] ys, int count) {
+    updateWorldShape();
+    for (int i = 0; i < count; i++) {
+      if (Polygon.contains(worldXs, worldYs, shape.nbVertices(), xs[i], ys[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param xs    the abscissas of the vertices of a convex polygon
+   * @param ys    the ordinates of the vertices of a convex polygon
+   * @param count the number of vertices of the polygon
+   * @return whether the polygon and the asteroid have a common point
+   */
+  public boolean intersectsConvex(double[] xs, double[] ys, int count) {
+    updateWorldShape();
+    // shapes are star-shaped around their center
+    return SeparatingAxis.intersectsStarShaped(
+      xs, ys, count, getPositionX(), getPositionY(), worldXs, worldYs, shape.nbVertices());
+  }
+
+  /**
+   * Cheap test on the bounding circle of the asteroid, to be used before
+   * the exact <em>contains</em>: a point for which it fails is certainly
+   * not in the asteroid.
+   *
+   * @param point an arbitrary point
+   * @return whether the point is in the bounding circle of the asteroid
+   */
+  public boolean mayContain(Vector point) {
+    return mayContain(point.getX(), point.getY());
+  }
+
+  /**
+   * @param x the abscissa of a point
+   * @param y the ordinate of a point
+   * @return whether the point is in the bounding circle of the asteroid
+   */
+  public boolean mayContain(double x, double y) {
+    return isCloserThan(x, y, 0);
+  }
+
+  /**
+   * @param center   the center of a disk
+   * @param distance the radius of the disk
+   * @return whether the disk meets the bounding circle of the asteroid
+   */
+  public boolean isCloserThan(Vector center, double distance) {
+    return isCloserThan(center.getX(), center.getY(), distance);
+  }
+
+  /**
+   * @param x        the abscissa of the center of a disk
+   * @param y        the ordinate of the center of a disk
+   * @param distance the radius of the disk
+   * @return whether the disk meets the bounding circle of the asteroid
+   */
+  public boolean isCloserThan(double x, double y, double distance) {
+    double dx = x - getPositionX();
+    double dy = y - getPositionY();
+    double reach = getRadius() + distance;
+    return dx * dx + dy * dy <= reach * reach;
+  }
+
+  /**
+   * @param startX the abscissa of the start of a segment
+   * @param startY the ordinate of the start of a segment
+   * @param endX   the abscissa of the end of a segment
+   * @param endY   the ordinate of the end of a segment
+   * @return whether the segment meets the asteroid
+   */
+  public boolean meetsSegment(double startX, double startY, double endX, double endY) {
+    updateWorldShape();
+    return Polygon.meetsSegment(worldXs, worldYs, shape.nbVertices(), startX, startY, endX, endY);
   }
 
-  public List<Asteroid> fragments() {
-    List<Asteroid> asteroidFragments = new ArrayList<>();
+  /**
+   * Cheap test on the bounding circle of the asteroid, to be used before
+   * the exact <em>meetsSegment</em>.
+   *
+   * @param startX the abscissa of the start of a segment
+   * @param startY the ordinate of the start of a segment
+   * @param endX   the abscissa of the end of a segment
+   * @param endY   the ordinate of the end of a segment
+   * @return whether the segment meets the bounding circle of the asteroid
+   */
+  public boolean mayMeetSegment(double startX, double startY, double endX, double endY) {
+    double segmentX = endX - startX;
+    double segmentY = endY - startY;
+    double centerX = getPositionX() - startX;
+    double centerY = getPositionY() - startY;
+    double lengthSquared = segmentX * segmentX + segmentY * segmentY;
+    // the point of the segment closest to the center
+    double t = (lengthSquared == 0)
+      ? 0
+      : Math.max(0, Math.min(1, (centerX * segmentX + centerY * segmentY) / lengthSquared));
+    double dx = centerX - t * segmentX;
+    double dy = centerY - t * segmentY;
+    return dx * dx + dy * dy <= getRadius() * getRadius();
+  }
+
+  /**
+   * The number of bytes written by writeTo.
+   */
+  static final int BYTES = 11 * 8 + 4;
+
+  /**
+   * @param buffer     where to write the state of the asteroid
+   * @param shapeIndex the index of its local shape among the shapes saved
+   *                   with it
+   */
+  void writeTo(ByteBuffer buffer, int shapeIndex) {
+    buffer.putDouble(getPositionX());
+    buffer.putDouble(getPositionY());
+    buffer.putDouble(getPreviousPositionX());
+    buffer.putDouble(getPreviousPositionY());
+    Vector velocity = getVelocity();
+    buffer.putDouble(velocity.getX());
+    buffer.putDouble(velocity.getY());
+    buffer.putDouble(getAngle());
+    buffer.putDouble(getPreviousAngle());
+    buffer.putDouble(getAngularVelocity());
+    buffer.putDouble(size);
+    buffer.putDouble(scale);
+    buffer.putInt(shapeIndex);
+  }
+
+  /**
+   * @param configuration the space in which the asteroid moves
+   * @param buffer        where to read an asteroid written by writeTo
+   * @param shapes        the shapes saved with the asteroid
+   * @return the asteroid read, in no store
+   */
+  static Asteroid readFrom(SpaceConfiguration configuration, ByteBuffer buffer, Polygon[] shapes) {
+    Vector center = new Vector(buffer.getDouble(), buffer.getDouble());
+    double previousX = buffer.getDouble();
+    double previousY = buffer.getDouble();
+    Vector velocity = new Vector(buffer.getDouble(), buffer.getDouble());
+    double angle = buffer.getDouble();
+    double previousAngle = buffer.getDouble();
+    double angularVelocity = buffer.getDouble();
+    double size = buffer.getDouble();
+    double scale = buffer.getDouble();
+    int shapeIndex = buffer.getInt();
+    if (shapeIndex < 0 || shapeIndex >= shapes.length) {
+      throw new IllegalArgumentException("invalid shape index " + shapeIndex);
+    }
+    Asteroid asteroid = new Asteroid(
+      configuration, center, shapes[shapeIndex], scale, velocity, angularVelocity, size);
+    asteroid.previousPosition.set(previousX, previousY);
+    asteroid.angle = angle;
+    asteroid.previousAngle = previousAngle;
+    return asteroid;
+  }
+
+  /**
+   * @param generator the generator of the space of the asteroid
+   * @return the asteroids replacing this one when it is destroyed.
+   */
+  public List<Asteroid> fragments(RandomGenerator generator) {
+    ListAsteroidStore asteroidFragments = new ListAsteroidStore();
+    addFragmentsTo(asteroidFragments, generator, new ObjectPool<>(0));
+    return asteroidFragments.asList();
+  }
+
+  /**
+   * Same as fragments, with the fragments reusing asteroids from a pool
+   * when it has some, and added directly to a store. The fragments that
+   * are not kept go back to the pool.
+   *
+   * @param store     where to add the fragments
+   * @param generator the generator of the space of the asteroid
+   * @param pool      asteroids removed from space, to reuse
+   */
+  void addFragmentsTo(AsteroidStore store, RandomGenerator generator, ObjectPool<Asteroid> pool) {
+    Vector center = this.getPosition();
     Asteroid fragment;
     for (int i = 0; i < Space.ASTEROID_FRAGMENT_COUNT; i++) {
-      fragment = Space.generator.asteroid(this.getPosition(), this.getSize()*Space.RATIO);
+      fragment = generator.asteroid(center, this.getSize()*Space.RATIO, pool.acquire());
       if (fragment.getSize() == Space.LIMIT_ASTEROID_SIZE) {
-        asteroidFragments.add(fragment);
+        store.add(fragment);
+      } else {
+        pool.release(fragment);
       }
     }
-    return asteroidFragments;
   }
 
 }
@@ -0,0 +1,223 @@
+package game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A uniform grid over the toric space, used as a broad phase when looking
+ * for collisions with asteroids. Asteroids are bucketed by the cell
+ * containing their center, so a point only needs to be tested against the
+ * asteroids of its own cell and of the eight neighbouring cells, wrapping
+ * around the borders of space.
+ * <p>
+ * As long as the cells are at least as large as the distance from the
+ * center of any asteroid to its farthest vertex, no asteroid containing
+ * a point can be missed by such a query.
+ * <p>
+ * Cells are hashed into about twice as many buckets as there are
+ * asteroids, and the asteroid indices are sorted by bucket with a
+ * counting sort, so that the memory written by a rebuild grows with the
+ * number of asteroids rather than with the area of space, and stays
+ * small enough to be written in cache. A cell is searched by filtering
+ * the asteroids of its bucket. Rebuilding the grid every tick does not
+ * allocate once it has grown to the number of asteroids.
+ */
+public class AsteroidGrid {
+
+  private static final int EMPTY = -1;
+
+  /**
+   * The smallest number of buckets, a power of two.
+   */
+  private static final int MIN_BUCKETS = 16;
+
+  private final int columns;
+  private final int rows;
+  private final double cellWidth;
+  private final double cellHeight;
+
+  /**
+   * For each bucket, the position in indices of its first asteroid,
+   * followed by the number of asteroids, so that the asteroids of a
+   * bucket are between its start and the start of the next bucket. The
+   * number of buckets is a power of two, from two to four times the
+   * number of asteroids, so that the bucket of an empty cell usually
+   * holds no asteroid to filter out.
+   */
+  private int[] bucketStarts = new int[MIN_BUCKETS + 1];
+
+  /**
+   * The indices of the asteroids, sorted by bucket, and in increasing
+   * order within a bucket.
+   */
+  private int[] indices = new int[0];
+
+  /**
+   * The cells of the asteroids, first for each asteroid index, then
+   * sorted by bucket as in indices, so that the asteroids of a bucket are
+   * filtered without reading elsewhere.
+   */
+  private int[] cells = new int[0];
+  private int[] sortedCells = new int[0];
+
+  private List<Asteroid> asteroids = List.of();
+
+
+  /**
+   * @param width    the width of space
+   * @param height   the height of space
+   * @param cellSize the minimum size of a cell, should be at least the
+   *                 radius of the largest asteroid
+   */
+  public AsteroidGrid(double width, double height, double cellSize) {
+    // At least three cells per dimension, so that the nine cells around
+    // any cell are all distinct.
+    this.columns = Math.max(3, (int) Math.floor(width / cellSize));
+    this.rows = Math.max(3, (int) Math.floor(height / cellSize));
+    this.cellWidth = width / columns;
+    this.cellHeight = height / rows;
+  }
+
+
+  /**
+   * Buckets again every asteroid according to its current position. The
+   * positions are read from the store rather than from the asteroids, so
+   * that a store keeping them in arrays is read sequentially.
+   *
+   * @param store the asteroids to put in the grid
+   */
+  public void rebuild(AsteroidStore store) {
+    this.asteroids = store.asList();
+    int count = store.size();
+    int bucketCount = Math.max(MIN_BUCKETS, Integer.highestOneBit(Math.max(2 * count - 1, 1)) << 1);
+    if (bucketStarts.length == bucketCount + 1) {
+      Arrays.fill(bucketStarts, 0);
+    } else {
+      bucketStarts = new int[bucketCount + 1];
+    }
+    if (indices.length < count) {
+      indices = new int[Math.max(count, 2 * indices.length)];
+      cells = new int[indices.length];
+      sortedCells = new int[indices.length];
+    }
+    for (int index = 0; index < count; index++) {
+      int cell = cell(
+        column(store.getPositionX(index)),
+        row(store.getPositionY(index))
+      );
+      cells[index] = cell;
+      bucketStarts[bucket(cell)]++;
+    }
+    int end = 0;
+    for (int bucket = 0; bucket <= bucketCount; bucket++) {
+      end += bucketStarts[bucket];
+      bucketStarts[bucket] = end;
+    }
+    // from the end of each bucket down, leaving bucketStarts at the starts
+    for (int index = count - 1; index >= 0; index--) {
+      int position = --bucketStarts[bucket(cells[index])];
+      indices[position] = index;
+      sortedCells[position] = cells[index];
+    }
+  }
+
+  /**
+   * Groups of four consecutive cells of a row share a bucket, so that a
+   * row of the cells around a point is usually searched in one bucket.
+   *
+   * @param cell the index of a cell
+   * @return the bucket of that cell
+   */
+  private int bucket(int cell) {
+    int hash = (cell >>> 2) * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & (bucketStarts.length - 2);
+  }
+
+
+  /**
+   * @return the number of columns of the grid.
+   */
+  public int getColumnCount() {
+    return columns;
+  }
+
+  /**
+   * @return the number of rows of the grid.
+   */
+  public int getRowCount() {
+    return rows;
+  }
+
+
+  /**
+   * @param x any abscissa, not necessarily in toric coordinates
+   * @return the (unwrapped) column containing x
+   */
+  public int column(double x) {
+    return (int) Math.floor(x / cellWidth);
+  }
+
+  /**
+   * @param y any ordinate, not necessarily in toric coordinates
+   * @return the (unwrapped) row containing y
+   */
+  public int row(double y) {
+    return (int) Math.floor(y / cellHeight);
+  }
+
+  /**
+   * @param column a column, possibly outside of the grid
+   * @param row    a row, possibly outside of the grid
+   * @return the index of the cell at that place, wrapping around the grid
+   */
+  public int cell(int column, int row) {
+    return Math.floorMod(row, rows) * columns + Math.floorMod(column, columns);
+  }
+
+  /**
+   * @param cell the index of a cell
+   * @return the position in the grid of the first asteroid in that cell,
+   * negative if the cell is empty
+   */
+  public int first(int cell) {
+    int bucket = bucket(cell);
+    return find(cell, bucketStarts[bucket], bucketStarts[bucket + 1]);
+  }
+
+  /**
+   * @param cell     the index of a cell
+   * @param position the position in the grid of an asteroid in that cell
+   * @return the position of the next asteroid in the same cell, negative
+   * if there is none
+   */
+  public int next(int cell, int position) {
+    return find(cell, position + 1, bucketStarts[bucket(cell) + 1]);
+  }
+
+  private int find(int cell, int from, int to) {
+    for (int position = from; position < to; position++) {
+      if (sortedCells[position] == cell) {
+        return position;
+      }
+    }
+    return EMPTY;
+  }
+
+  /**
+   * @param position the position in the grid of an asteroid
+   * @return the index of that asteroid in the store the grid was built
+   * from
+   */
+  public int indexAt(int position) {
+    return indices[position];
+  }
+
+  /**
+   * @param index the index of an asteroid in the grid
+   * @return the asteroid with that index
+   */
+  public Asteroid get(int index) {
+    return asteroids.get(index);
+  }
+
+}
@@ -0,0 +1,67 @@
+package game;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A container for the asteroids of a space, responsible for moving them
+ * over time. Implementations may organize the state of the asteroids as
+ * they see fit, but must give access to the asteroids as a list.
+ */
+public interface AsteroidStore {
+
+  /**
+   * @return a read-only view of the asteroids in the store, reflecting
+   * later changes of the store.
+   */
+  List<Asteroid> asList();
+
+  /**
+   * @return the number of asteroids in the store.
+   */
+  int size();
+
+  /**
+   * @param index the index of an asteroid in the list of the store
+   * @return the abscissa of the center of that asteroid
+   */
+  double getPositionX(int index);
+
+  /**
+   * @param index the index of an asteroid in the list of the store
+   * @return the ordinate of the center of that asteroid
+   */
+  double getPositionY(int index);
+
+  /**
+   * @param asteroid an asteroid to add to the store
+   */
+  void add(Asteroid asteroid);
+
+  /**
+   * Removes some asteroids, keeping the others in the same order.
+   *
+   * @param asteroids the asteroids to remove, preferably in a set.
+   */
+  void removeAll(Collection<Asteroid> asteroids);
+
+  /**
+   * Simulates the effect of a small time delay <em>dt</em> upon every
+   * asteroid of the store.
+   *
+   * @param dt the time delay to simulate.
+   */
+  void update(double dt);
+
+  /**
+   * Same as update, for the asteroids whose index in the list of the store
+   * is between from (included) and to (excluded). Calls on disjoint ranges
+   * may run concurrently.
+   *
+   * @param from the index of the first asteroid to move
+   * @param to   the index following the last asteroid to move
+   * @param dt   the time delay to simulate.
+   */
+  void update(int from, int to, double dt);
+
+}
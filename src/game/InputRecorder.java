@@ -0,0 +1,141 @@
+package game;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Records everything needed to replay a space exactly: its seed and
+ * configuration, then every command given to its spaceship and every
+ * delay it is updated by, in the order they happen. Optionally, a hash of
+ * the state of the space is recorded after each update, so that a replay
+ * can tell at which tick it diverged.
+ * <p>
+ * The log is binary: a header made of {@link #MAGIC}, {@link #VERSION},
+ * the seed (long), the width and height of space (doubles), the initial
+ * number of asteroids (int) and the size of the pool of asteroid shapes
+ * (int), followed by records each starting with a tag byte:
+ * <ul>
+ *   <li>the ordinal of a {@link SpaceshipCommand}, for a command;</li>
+ *   <li>{@link #TAG_UPDATE}, for an update by the same delay as the
+ *   previous one;</li>
+ *   <li>{@link #TAG_UPDATE_WITH_DELAY} followed by the delay (double),
+ *   for an update by a new delay;</li>
+ *   <li>{@link #TAG_HASH} followed by a hash (long) of the state of
+ *   space after the last update.</li>
+ * </ul>
+ * A tick with a fixed time step and no command thus takes a single byte,
+ * or ten with hashes.
+ */
+public class InputRecorder {
+
+  public static final int MAGIC = 0x41535452;
+  public static final byte VERSION = 2;
+  public static final byte TAG_UPDATE = 0x20;
+  public static final byte TAG_UPDATE_WITH_DELAY = 0x21;
+  public static final byte TAG_HASH = 0x22;
+
+  /**
+   * How much simulated time passes between two flushes of the log, in
+   * seconds, bounding what is lost if the game is killed.
+   */
+  private static final double FLUSH_PERIOD = 1;
+
+  private final DataOutputStream out;
+  private final boolean isHashing;
+  private double lastDelay = Double.NaN;
+  private double unflushedTime = 0;
+
+  /**
+   * @param out       where to write the log, closed with the recorder
+   * @param isHashing whether to record a hash of the state after each
+   *                  update
+   */
+  public InputRecorder(OutputStream out, boolean isHashing) {
+    this.out = new DataOutputStream(new BufferedOutputStream(out));
+    this.isHashing = isHashing;
+  }
+
+  /**
+   * Writes the header of the log.
+   *
+   * @param space the space about to be recorded
+   */
+  void recordStart(Space space) {
+    SpaceConfiguration configuration = space.getConfiguration();
+    try {
+      out.writeInt(MAGIC);
+      out.writeByte(VERSION);
+      out.writeLong(space.getSeed());
+      out.writeDouble(configuration.getWidth());
+      out.writeDouble(configuration.getHeight());
+      out.writeInt(configuration.getInitialAsteroidCount());
+      out.writeInt(configuration.getShapePoolSize());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @param command a command about to be given to the spaceship
+   */
+  void recordCommand(SpaceshipCommand command) {
+    try {
+      out.writeByte(command.ordinal());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @param dt the delay the space is about to be updated by
+   */
+  void recordUpdate(double dt) {
+    try {
+      if (Double.compare(dt, lastDelay) == 0) {
+        out.writeByte(TAG_UPDATE);
+      } else {
+        out.writeByte(TAG_UPDATE_WITH_DELAY);
+        out.writeDouble(dt);
+        lastDelay = dt;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Records the hash of a space just updated, if hashing, and flushes the
+   * log from time to time.
+   *
+   * @param space the space just updated
+   */
+  void recordUpdated(Space space) {
+    try {
+      if (isHashing) {
+        out.writeByte(TAG_HASH);
+        out.writeLong(space.stateHash());
+      }
+      unflushedTime += lastDelay;
+      if (unflushedTime >= FLUSH_PERIOD || space.isGameOver()) {
+        out.flush();
+        unflushedTime = 0;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes what remains of the log and closes it.
+   */
+  public void close() {
+    try {
+      out.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
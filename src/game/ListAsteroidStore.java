@@ -0,0 +1,61 @@
+package game;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The default asteroid store: a list of asteroids, each of them holding
+ * its own state and moving itself.
+ */
+public class ListAsteroidStore implements AsteroidStore {
+
+  private final List<Asteroid> asteroids = new ArrayList<>();
+  private final List<Asteroid> view = Collections.unmodifiableList(asteroids);
+
+  @Override
+  public List<Asteroid> asList() {
+    return view;
+  }
+
+  @Override
+  public int size() {
+    return asteroids.size();
+  }
+
+  @Override
+  public double getPositionX(int index) {
+    return asteroids.get(index).getPositionX();
+  }
+
+  @Override
+  public double getPositionY(int index) {
+    return asteroids.get(index).getPositionY();
+  }
+
+  @Override
+  public void add(Asteroid asteroid) {
+    asteroids.add(asteroid);
+  }
+
+  @Override
+  public void removeAll(Collection<Asteroid> removed) {
+    asteroids.removeAll(removed);
+  }
+
+  @Override
+  public void update(double dt) {
+    for (Asteroid asteroid : asteroids) {
+      asteroid.update(dt);
+    }
+  }
+
+  @Override
+  public void update(int from, int to, double dt) {
+    for (int index = from; index < to; index++) {
+      asteroids.get(index).update(dt);
+    }
+  }
+
+}
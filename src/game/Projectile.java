@@ -1,16 +1,24 @@
 package game;
+import tools.MutableVector;
 import tools.Vector;
 
+import java.nio.ByteBuffer;
+
 public class Projectile {
     /**
      * The position of the projectile
      */
-    private Vector position;
+    private final MutableVector position;
+
+    /**
+     * The position of the projectile before the last update
+     */
+    private final MutableVector previousPosition;
 
     /**
      * The velocity of the projectile
      */
-    private Vector velocity;
+    private final MutableVector velocity;
 
     /**
      * The lifetime of the projectile
@@ -21,16 +29,64 @@ public class Projectile {
      * Initializes a projectile which has initially 10 like lifetime
      */
     public Projectile(Vector position, Vector velocity) {
-        this.position = position;
-        this.velocity = velocity;
+        this.position = new MutableVector(position);
+        this.previousPosition = new MutableVector(position);
+        this.velocity = new MutableVector(velocity);
         this.lifetime = 10;
     }
 
+    /**
+     * Turns this projectile into a new one, as if it had just been
+     * created, so that it can be reused once it has been removed from
+     * space.
+     *
+     * @param x  the abscissa of the position of the projectile
+     * @param y  the ordinate of the position of the projectile
+     * @param vx the abscissa of the velocity of the projectile
+     * @param vy the ordinate of the velocity of the projectile
+     * @return this projectile
+     */
+    Projectile reset(double x, double y, double vx, double vy) {
+        position.set(x, y);
+        previousPosition.set(x, y);
+        velocity.set(vx, vy);
+        lifetime = 10;
+        return this;
+    }
+
     /**
      * @return the position the position of the projectile
      */
     public Vector getPosition() {
-        return position;
+        return position.toVector();
+    }
+
+    /**
+     * @return the abscissa of the projectile
+     */
+    public double getPositionX() {
+        return position.getX();
+    }
+
+    /**
+     * @return the ordinate of the projectile
+     */
+    public double getPositionY() {
+        return position.getY();
+    }
+
+    /**
+     * @return the abscissa of the projectile before the last update
+     */
+    public double getPreviousPositionX() {
+        return previousPosition.getX();
+    }
+
+    /**
+     * @return the ordinate of the projectile before the last update
+     */
+    public double getPreviousPositionY() {
+        return previousPosition.getY();
     }
 
     /**
@@ -41,7 +97,8 @@ public class Projectile {
      */
     public void update(double dt) {
         lifetime = lifetime - dt;
-        position = position.add(velocity.multiply(dt));
+        previousPosition.set(position.getX(), position.getY());
+        position.scaleAddInPlace(dt, velocity);
     }
 
     /**
@@ -51,8 +108,65 @@ public class Projectile {
         return lifetime > 0;
     }
 
+    /**
+     * The number of bytes written by writeTo.
+     */
+    static final int BYTES = 7 * 8;
+
+    /**
+     * @param buffer where to write the positions, velocity and lifetime
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putDouble(position.getX());
+        buffer.putDouble(position.getY());
+        buffer.putDouble(previousPosition.getX());
+        buffer.putDouble(previousPosition.getY());
+        buffer.putDouble(velocity.getX());
+        buffer.putDouble(velocity.getY());
+        buffer.putDouble(lifetime);
+    }
+
+    /**
+     * @param buffer where to read a projectile written by writeTo
+     * @return the projectile read
+     */
+    static Projectile readFrom(ByteBuffer buffer) {
+        Projectile projectile =
+          new Projectile(new Vector(buffer.getDouble(), buffer.getDouble()), Vector.ZERO);
+        projectile.previousPosition.set(buffer.getDouble(), buffer.getDouble());
+        projectile.velocity.set(buffer.getDouble(), buffer.getDouble());
+        projectile.lifetime = buffer.getDouble();
+        return projectile;
+    }
+
+    /**
+     * Tests the whole path of the projectile during the last update, from
+     * its previous position to its current one, so that a fast projectile
+     * or a long update cannot step over an asteroid.
+     *
+     * @param asteroid an asteroid
+     * @return whether the projectile went through the asteroid during the
+     * last update
+     */
     public boolean Hits(Asteroid asteroid) {
-        return asteroid.contains(this.position);
+        return mayHit(asteroid)
+          && asteroid.meetsSegment(
+               previousPosition.getX(), previousPosition.getY(),
+               position.getX(), position.getY());
+    }
+
+    /**
+     * Cheap test to be used before <em>Hits</em>: a projectile for which
+     * it fails certainly did not hit the asteroid.
+     *
+     * @param asteroid an asteroid
+     * @return whether the path of the projectile during the last update
+     * meets the bounding circle of the asteroid
+     */
+    public boolean mayHit(Asteroid asteroid) {
+        return asteroid.mayMeetSegment(
+          previousPosition.getX(), previousPosition.getY(),
+          position.getX(), position.getY());
     }
 
 
@@ -2,19 +2,34 @@ package game;
 
 
 import tools.Polygon;
+import tools.SplitMix;
 import tools.Vector;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Objects of this class can generate random values (polygons, asteroids,
- * positions,...) with limited parametrization.
+ * positions,...) with limited parametrization. Two generators created
+ * with the same seed and configuration generate the same values.
  */
 public class RandomGenerator {
 
-  private static final Random gen = new Random();
+  private final SplitMix gen;
+
+  /**
+   * The shapes of the generated asteroids, looked up when first needed.
+   */
+  private ShapePool shapes;
+
+  /**
+   * The second of the two values computed by the last call to gaussian,
+   * returned by the next call.
+   */
+  private double nextGaussian;
+  private boolean hasNextGaussian = false;
 
   // Asteroid parameters
   private static final double STANDARD_ANGULAR_VELOCITY = 10;
@@ -26,6 +41,82 @@ public class RandomGenerator {
   private static final double MIN_CENTER_TO_VERTEX_DISTANCE = 10;
   private static final double MAX_CENTER_TO_VERTEX_DISTANCE = 20;
 
+  /**
+   * The space in which the generated items are placed.
+   */
+  private final SpaceConfiguration configuration;
+
+  public RandomGenerator() {
+    this(SpaceConfiguration.DEFAULT);
+  }
+
+  /**
+   * Creates a generator with an arbitrary seed, different for each
+   * generator.
+   *
+   * @param configuration the space in which the generated items are placed
+   */
+  public RandomGenerator(SpaceConfiguration configuration) {
+    this(configuration, ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * @param configuration the space in which the generated items are placed
+   * @param seed          the seed of the generated values
+   */
+  public RandomGenerator(SpaceConfiguration configuration, long seed) {
+    this(configuration, new SplitMix(seed));
+  }
+
+  private RandomGenerator(SpaceConfiguration configuration, SplitMix gen) {
+    this.configuration = configuration;
+    this.gen = gen;
+  }
+
+  /**
+   * Creates a new generator, whose values are independent from the ones
+   * of this generator. It is determined by the state of this generator,
+   * so splitting a seeded generator gives the same generators on every
+   * run, that can be used by different threads.
+   *
+   * @return a new generator for the same space.
+   */
+  public RandomGenerator split() {
+    return new RandomGenerator(configuration, gen.split());
+  }
+
+
+  /**
+   * The number of bytes written by writeTo.
+   */
+  static final int BYTES = 8 + 8 + 1 + 8;
+
+  /**
+   * Writes the state of the generator, so that a generator read back
+   * generates the same values as this one from now on.
+   *
+   * @param buffer where to write
+   */
+  void writeTo(ByteBuffer buffer) {
+    buffer.putLong(gen.getState());
+    buffer.putLong(gen.getGamma());
+    buffer.put((byte) (hasNextGaussian ? 1 : 0));
+    buffer.putDouble(nextGaussian);
+  }
+
+  /**
+   * @param configuration the space in which the generated items are placed
+   * @param buffer        where to read a state written by writeTo
+   * @return the generator in the state read
+   */
+  static RandomGenerator readFrom(SpaceConfiguration configuration, ByteBuffer buffer) {
+    RandomGenerator generator =
+      new RandomGenerator(configuration, new SplitMix(buffer.getLong(), buffer.getLong()));
+    generator.hasNextGaussian = buffer.get() != 0;
+    generator.nextGaussian = buffer.getDouble();
+    return generator;
+  }
+
 
   /**
    * Generates a random asteroid.
@@ -44,11 +135,46 @@ public class RandomGenerator {
    * @return the generated asteroid
    */
   public Asteroid asteroid(Vector position, double size) {
-    Polygon shape = polygon(MIN_VERTEX_COUNT, MAX_VERTEX_COUNT, size);
+    return asteroid(position, size, null);
+  }
+
+  /** Same as asteroid, reusing an asteroid removed from space if there
+   * is one. The same random values are drawn either way.
+   * @param position the center of the asteroid
+   * @param size the size of the asteroid (linear in diameter)
+   * @param reused an asteroid in no store to reset, or null
+   * @return the generated asteroid, reused if not null
+   */
+  Asteroid asteroid(Vector position, double size, Asteroid reused) {
+    Polygon shape = sharedShape();
     Vector velocity = velocity();
     double angularVelocity = angularVelocity();
-    return new Asteroid(position, shape, velocity, angularVelocity,size);
+    if (reused == null) {
+      return new Asteroid(configuration, position, shape, size, velocity, angularVelocity, size);
+    }
+    return reused.reset(position, shape, size, velocity, angularVelocity, size);
+  }
+
 
+  /**
+   * @return one of the shapes of size 1 of the shape pool, at random.
+   */
+  private Polygon sharedShape() {
+    if (shapes == null) {
+      shapes = ShapePool.of(configuration.getShapePoolSize());
+    }
+    int nbVertex = gen.nextInt(MIN_VERTEX_COUNT, MAX_VERTEX_COUNT + 1);
+    return shapes.get(nbVertex, gen.nextInt(0, shapes.size()));
+  }
+
+
+  /**
+   * @param size      the number of shapes for each number of vertices
+   * @param generator the generator of the shapes
+   * @return a new pool of shapes with the standard numbers of vertices.
+   */
+  static ShapePool shapePool(int size, RandomGenerator generator) {
+    return new ShapePool(MIN_VERTEX_COUNT, MAX_VERTEX_COUNT, size, generator);
   }
 
 
@@ -61,7 +187,7 @@ public class RandomGenerator {
    */
   public Polygon polygon(int minVertexCount, int maxVertexCount, double size) {
     int nbVertex =
-      gen.nextInt(maxVertexCount - minVertexCount + 1) + minVertexCount;
+      gen.nextInt(minVertexCount, maxVertexCount + 1);
     return polygon(nbVertex, size);
   }
 
@@ -88,10 +214,10 @@ public class RandomGenerator {
    */
   private Vector position() {
     Vector center = new Vector(
-      gen.nextDouble() * Space.SPACE_WIDTH,
-      gen.nextDouble() * Space.SPACE_HEIGHT
+      gen.nextDouble() * configuration.getWidth(),
+      gen.nextDouble() * configuration.getHeight()
     );
-    return Space.toricRemap(center);
+    return configuration.toricRemap(center);
   }
 
 
@@ -99,7 +225,7 @@ public class RandomGenerator {
    * @return a random angular velocity, with uniform distribution.
    */
   private double angularVelocity() {
-    return gen.nextGaussian() * STANDARD_ANGULAR_VELOCITY;
+    return gaussian() * STANDARD_ANGULAR_VELOCITY;
   }
 
 
@@ -108,8 +234,8 @@ public class RandomGenerator {
    */
   private Vector velocity() {
     return new Vector(
-      gen.nextGaussian() * STANDARD_SPEED,
-      gen.nextGaussian() * STANDARD_SPEED
+      gaussian() * STANDARD_SPEED,
+      gaussian() * STANDARD_SPEED
     );
   }
 
@@ -123,4 +249,30 @@ public class RandomGenerator {
   }
 
 
+  /**
+   * Draws values of the standard normal distribution two at a time,
+   * with the polar method.
+   *
+   * @return a random value with a mean of 0 and a standard deviation of 1
+   */
+  private double gaussian() {
+    if (hasNextGaussian) {
+      hasNextGaussian = false;
+      return nextGaussian;
+    }
+    double x;
+    double y;
+    double squaredNorm;
+    do {
+      x = 2 * gen.nextDouble() - 1;
+      y = 2 * gen.nextDouble() - 1;
+      squaredNorm = x * x + y * y;
+    } while (squaredNorm >= 1 || squaredNorm == 0);
+    double factor = Math.sqrt(-2 * Math.log(squaredNorm) / squaredNorm);
+    nextGaussian = y * factor;
+    hasNextGaussian = true;
+    return x * factor;
+  }
+
+
 }
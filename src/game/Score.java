@@ -1,5 +1,7 @@
 package game;
 
+import java.nio.ByteBuffer;
+
 public class Score {
 
     private static final double REBOOT_TIME = 3;
@@ -52,6 +54,32 @@ public class Score {
         return MULTIPLIER_MODIFIER_VALUE;
     }
 
+    /**
+     * The number of bytes written by writeTo.
+     */
+    static final int BYTES = 8 + 4 + 8;
+
+    /**
+     * @param buffer where to write the value, multiplier and multiplier timer
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putDouble(value);
+        buffer.putInt(multiplier);
+        buffer.putDouble(multiplierTime);
+    }
+
+    /**
+     * @param buffer where to read a score written by writeTo
+     * @return the score read
+     */
+    static Score readFrom(ByteBuffer buffer) {
+        Score score = new Score();
+        score.value = buffer.getDouble();
+        score.multiplier = buffer.getInt();
+        score.multiplierTime = buffer.getDouble();
+        return score;
+    }
+
 
 
 }
@@ -0,0 +1,121 @@
+package game;
+
+import tools.Polygon;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The distinct local shapes of a list of asteroids, in order of first
+ * use, each with its index in the shape table of a saved space. Shapes
+ * are compared by identity, in an open-addressing table of primitive
+ * indices, and an index can be reused for several saves: once its arrays
+ * are large enough, indexing the shapes of a space allocates nothing.
+ */
+class ShapeIndex {
+
+  private Polygon[] shapes = new Polygon[ShapePool.DEFAULT_SIZE];
+  private int count = 0;
+  private int vertexCount = 0;
+
+  /**
+   * The indexed shapes, at the slot of their identity hash or after it,
+   * with their index in shapes at the same slot. At most half full.
+   */
+  private Polygon[] keys = new Polygon[2 * ShapePool.DEFAULT_SIZE];
+  private int[] indices = new int[keys.length];
+
+  /**
+   * Forgets the shapes indexed before, and indexes those of some
+   * asteroids.
+   *
+   * @param asteroids the asteroids whose shapes are indexed
+   * @return this
+   */
+  ShapeIndex index(List<Asteroid> asteroids) {
+    Arrays.fill(keys, null);
+    Arrays.fill(shapes, 0, count, null);
+    count = 0;
+    vertexCount = 0;
+    for (int i = 0; i < asteroids.size(); i++) {
+      add(asteroids.get(i).getLocalShape());
+    }
+    return this;
+  }
+
+  private void add(Polygon shape) {
+    if (2 * (count + 1) > keys.length) {
+      grow();
+    }
+    int slot = slotOf(shape);
+    if (keys[slot] == shape) {
+      return;
+    }
+    keys[slot] = shape;
+    indices[slot] = count;
+    if (count == shapes.length) {
+      shapes = Arrays.copyOf(shapes, 2 * count);
+    }
+    shapes[count++] = shape;
+    vertexCount += shape.nbVertices();
+  }
+
+  private void grow() {
+    keys = new Polygon[2 * keys.length];
+    indices = new int[keys.length];
+    int indexed = count;
+    count = 0;
+    vertexCount = 0;
+    for (int i = 0; i < indexed; i++) {
+      add(shapes[i]);
+    }
+  }
+
+  /**
+   * @return the slot of a shape, or the empty slot where it would be.
+   */
+  private int slotOf(Polygon shape) {
+    int mask = keys.length - 1;
+    int hash = System.identityHashCode(shape);
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while (keys[slot] != null && keys[slot] != shape) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * @param shape an indexed shape
+   * @return the index of the shape
+   * @throws IllegalArgumentException if the shape is not indexed
+   */
+  int indexOf(Polygon shape) {
+    int slot = slotOf(shape);
+    if (keys[slot] == null) {
+      throw new IllegalArgumentException("shape not indexed");
+    }
+    return indices[slot];
+  }
+
+  /**
+   * @return the number of distinct shapes.
+   */
+  int size() {
+    return count;
+  }
+
+  /**
+   * @param index an index between 0 and size, excluded
+   * @return the shape with that index
+   */
+  Polygon get(int index) {
+    return shapes[index];
+  }
+
+  /**
+   * @return the total number of vertices of the distinct shapes.
+   */
+  int getVertexCount() {
+    return vertexCount;
+  }
+}
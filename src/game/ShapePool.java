@@ -0,0 +1,69 @@
+package game;
+
+import tools.Polygon;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A fixed set of random asteroid shapes, shared by all the asteroids
+ * (flyweights): an asteroid refers to one of these shapes and scales it
+ * by its size, instead of owning its own polygon. The shapes are generated
+ * once, from a fixed seed, so that every space with the same pool size
+ * uses the same shapes and stays deterministic.
+ */
+public class ShapePool {
+
+  /**
+   * The default number of shapes for each number of vertices.
+   */
+  public static final int DEFAULT_SIZE = 32;
+
+  private static final long SEED = 0x5EED5EED5EEDL;
+
+  private static final Map<Integer, ShapePool> pools = new ConcurrentHashMap<>();
+
+  private final int minVertexCount;
+  private final Polygon[][] shapes;
+
+  /**
+   * @param minVertexCount the smallest number of vertices of a shape
+   * @param maxVertexCount the largest number of vertices of a shape
+   * @param size           the number of shapes for each number of vertices
+   * @param generator      the generator of the shapes, of size 1
+   */
+  ShapePool(int minVertexCount, int maxVertexCount, int size, RandomGenerator generator) {
+    this.minVertexCount = minVertexCount;
+    this.shapes = new Polygon[maxVertexCount - minVertexCount + 1][size];
+    for (int vertexCount = minVertexCount; vertexCount <= maxVertexCount; vertexCount++) {
+      for (int index = 0; index < size; index++) {
+        shapes[vertexCount - minVertexCount][index] = generator.polygon(vertexCount, 1);
+      }
+    }
+  }
+
+  /**
+   * @param size the number of shapes for each number of vertices
+   * @return the pool of that size, created the first time it is needed.
+   */
+  public static ShapePool of(int size) {
+    return pools.computeIfAbsent(size, newSize ->
+      RandomGenerator.shapePool(newSize, new RandomGenerator(SpaceConfiguration.DEFAULT, SEED)));
+  }
+
+  /**
+   * @return the number of shapes for each number of vertices.
+   */
+  public int size() {
+    return shapes[0].length;
+  }
+
+  /**
+   * @param vertexCount the number of vertices of the shape
+   * @param index       the index of the shape, less than size()
+   * @return a shared shape of size 1, centered on (0,0).
+   */
+  public Polygon get(int vertexCount, int index) {
+    return shapes[vertexCount - minVertexCount][index];
+  }
+}
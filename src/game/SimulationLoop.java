@@ -0,0 +1,181 @@
+package game;
+
+import tools.FixedStepAccumulator;
+import tools.TripleBuffer;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Runs the simulation of a space on its own thread, with fixed time steps.
+ * Other threads never touch the space directly: they submit tasks, run by
+ * the simulation thread between two steps, and read the state of the space
+ * from snapshots published after each step through a triple buffer, so
+ * that neither side ever waits for the other.
+ */
+public class SimulationLoop {
+
+  /**
+   * How long the thread sleeps when paused, before looking for tasks again.
+   */
+  private static final long PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+  private final Space space;
+  private final FixedStepAccumulator accumulator;
+  private final TripleBuffer<SpaceSnapshot> snapshots =
+    new TripleBuffer<>(SpaceSnapshot::new);
+  private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+
+  private volatile boolean isRunning = false;
+  private volatile boolean isPaused = true;
+  private Thread thread;
+
+  /**
+   * A task submitted to the simulation thread, with the future completed
+   * once it has run.
+   */
+  private static class Task {
+    private final Consumer<Space> action;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private Task(Consumer<Space> action) {
+      this.action = action;
+    }
+  }
+
+  /**
+   * @param space            the space to simulate, which must not be used
+   *                         by other threads once the loop is started
+   * @param timeStep         the simulated delay of each step, in seconds
+   * @param maxStepsPerCycle the maximum number of steps simulated to
+   *                         catch up after a pause of the thread
+   */
+  public SimulationLoop(Space space, double timeStep, int maxStepsPerCycle) {
+    this.space = space;
+    this.accumulator = new FixedStepAccumulator(timeStep, maxStepsPerCycle);
+    publishSnapshot();
+  }
+
+  /**
+   * Starts the simulation thread, initially paused.
+   */
+  public void start() {
+    isRunning = true;
+    thread = new Thread(this::run, "simulation");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stops the simulation thread for good.
+   */
+  public void stop() {
+    isRunning = false;
+    LockSupport.unpark(thread);
+  }
+
+  /**
+   * Stops advancing time, tasks are still run.
+   */
+  public void pause() {
+    isPaused = true;
+  }
+
+  /**
+   * Advances time again.
+   */
+  public void resume() {
+    isPaused = false;
+    LockSupport.unpark(thread);
+  }
+
+  /**
+   * @return whether time is not advancing.
+   */
+  public boolean isPaused() {
+    return isPaused;
+  }
+
+  /**
+   * Asks the simulation thread to run a task on the space before its
+   * next step. A task that throws does not stop the thread: its failure
+   * is reported, and completes the returned future.
+   *
+   * @param task the task to run on the space
+   * @return a future completed once the task has run, exceptionally if
+   * it threw
+   */
+  public CompletableFuture<Void> submit(Consumer<Space> task) {
+    Task submitted = new Task(task);
+    tasks.add(submitted);
+    LockSupport.unpark(thread);
+    return submitted.done;
+  }
+
+  /**
+   * Must always be called from the same thread, usually the one drawing
+   * the game.
+   *
+   * @return the latest state of the space published by the simulation
+   * thread.
+   */
+  public SpaceSnapshot getSnapshot() {
+    return snapshots.getFront();
+  }
+
+  private void run() {
+    long lastCycle = System.nanoTime();
+    while (isRunning) {
+      boolean hasChanged = runTasks();
+      long now = System.nanoTime();
+      if (isPaused || space.isGameOver()) {
+        accumulator.reset();
+        lastCycle = now;
+        if (hasChanged) {
+          publishSnapshot();
+        }
+        LockSupport.parkNanos(PAUSE_NANOS);
+        continue;
+      }
+      int steps = accumulator.advance((now - lastCycle) * 1e-9);
+      lastCycle = now;
+      for (int i = 0; i < steps; i++) {
+        runTasks();
+        space.update(accumulator.getTimeStep());
+      }
+      if (steps > 0 || hasChanged) {
+        publishSnapshot();
+      }
+      double untilNextStep = accumulator.getTimeStep() - accumulator.getRemainder();
+      LockSupport.parkNanos((long) (untilNextStep * 1e9));
+    }
+  }
+
+  /**
+   * @return whether any task was run.
+   */
+  private boolean runTasks() {
+    boolean hasRun = false;
+    Task task;
+    while ((task = tasks.poll()) != null) {
+      try {
+        task.action.accept(space);
+        task.done.complete(null);
+      } catch (RuntimeException e) {
+        System.err.println("simulation task failed: " + e);
+        task.done.completeExceptionally(e);
+      }
+      hasRun = true;
+    }
+    return hasRun;
+  }
+
+  private void publishSnapshot() {
+    snapshots.getBack().capture(space, accumulator.getTimeStep());
+    snapshots.publish();
+  }
+}
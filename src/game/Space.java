@@ -1,12 +1,16 @@
 package game;
 
 
-import tools.Vector;
+import tools.ObjectPool;
+import tools.ParallelLoop;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A Space contains all the information determining the current state of
@@ -15,10 +19,6 @@ import java.util.Set;
  */
 public class Space {
 
-  public static final double SPACE_WIDTH = 800;
-  public static final double SPACE_HEIGHT = 800;
-
-  public static final int INITIAL_ASTEROID_COUNT = 10;
   public static final double INITIAL_ASTEROID_SIZE = 2;
   public static final double LIMIT_ASTEROID_SIZE = 1.5;
   public static final double ASTEROID_FRAGMENT_COUNT = 3;
@@ -32,65 +32,453 @@ public class Space {
    */
   private static final double STARTING_SECURITY_DISTANCE = 80;
 
+  /**
+   * The size of the cells of the broad phase grid, in pixels. It must be
+   * at least the largest distance from the center of an asteroid to one
+   * of its vertices (40 pixels with the standard generator).
+   */
+  private static final double BROAD_PHASE_CELL_SIZE = 50;
+
+  /**
+   * The dimensions of this space and its initial number of asteroids.
+   */
+  private final SpaceConfiguration configuration;
+
+  /**
+   * The seed of the generator.
+   */
+  private final long seed;
+
   /**
    * An object able to create random items, like asteroids or positions.
    */
-  public static final RandomGenerator generator = new RandomGenerator();
+  private final RandomGenerator generator;
+
+  /**
+   * Records the commands and updates of this space, null unless recording.
+   */
+  private InputRecorder recorder;
+
+  /**
+   * Keeps the recent history of this space, null unless journaling.
+   */
+  private SpaceJournal journal;
+
+  /**
+   * Whether this space was updated at least once, or built from a saved
+   * state.
+   */
+  private boolean hasStarted = false;
 
 
   private Spaceship spaceship;
-  private List<Asteroid> asteroids;
+  private final AsteroidStore asteroids;
   private Score score;
   private List<Projectile> projectiles;
 
+  /**
+   * Buckets the asteroids by position, to test each projectile against
+   * nearby asteroids only.
+   */
+  private final AsteroidGrid asteroidGrid;
+
+  /**
+   * Whether projectile hits and collisions with the spaceship are searched
+   * using the broad phase grid, rather than by testing every asteroid.
+   */
+  private boolean isBroadPhaseEnabled = true;
+
+  /**
+   * The projectiles and asteroids hit during the current update, kept
+   * between updates to avoid allocating new sets every tick. The hit
+   * asteroids are fragmented in the order of the store rather than in
+   * the order of the hits, which depends on the broad phase, so that the
+   * generator draws the same fragments whether it is enabled or not:
+   * their indices in the store are kept, to be sorted.
+   */
+  private final Set<Projectile> hittingProjectiles = new LinkedHashSet<>();
+  private final Set<Asteroid> hittedAsteroids = new LinkedHashSet<>();
+  private int[] hittedIndices = new int[16];
+  private final List<Asteroid> fragmentedAsteroids = new ArrayList<>();
+
+  /**
+   * The minimum number of projectiles or asteroids handled by a worker
+   * thread when updating in parallel.
+   */
+  private static final int PARALLEL_CHUNK_SIZE = 1024;
+
+  /**
+   * Runs the loops of an update over projectiles and asteroids,
+   * sequentially unless a parallelism greater than 1 was set.
+   */
+  private ParallelLoop loop = new ParallelLoop(1, PARALLEL_CHUNK_SIZE);
+
+  /**
+   * What to do with a projectile and an asteroid it may hit, given by its
+   * index in the store.
+   */
+  private interface CandidateAction {
+    void accept(Projectile projectile, int index);
+  }
+
+  /**
+   * Tests and scores a pair of a projectile and an asteroid.
+   */
+  private final CandidateAction hitChecker = this::checkHit;
+
+  /**
+   * The buffers of the worker threads looking for hits, one per chunk
+   * of projectiles.
+   */
+  private HitCandidates[] hitCandidates = new HitCandidates[0];
+
+  /**
+   * The delay of the update in progress, read by the loop bodies below
+   * rather than captured, so that they are built once and not at every
+   * update.
+   */
+  private double timeStep;
+
+  private final ParallelLoop.Body projectileUpdater = this::updateProjectileChunk;
+  private final ParallelLoop.Body asteroidUpdater = this::updateAsteroidChunk;
+  private final ParallelLoop.Body hitSearcher = this::findHitCandidateChunk;
+
+  /**
+   * The largest number of removed projectiles and asteroids kept to be
+   * reused, which bounds the memory held by the pools.
+   */
+  private static final int PROJECTILE_POOL_CAPACITY = 256;
+  private static final int ASTEROID_POOL_CAPACITY = 256;
+
+  /**
+   * The projectiles and asteroids removed from this space, reused for
+   * new projectiles and fragments, so that sustained fire does not
+   * allocate.
+   */
+  private final ObjectPool<Projectile> projectilePool = new ObjectPool<>(PROJECTILE_POOL_CAPACITY);
+  private final ObjectPool<Asteroid> asteroidPool = new ObjectPool<>(ASTEROID_POOL_CAPACITY);
+
   public Spaceship getSpaceship() {
     return spaceship;
   }
 
+  /**
+   * @return a read-only view of the asteroids.
+   */
   public List<Asteroid> getAsteroids() {
-    return asteroids;
+    return asteroids.asList();
   }
 
   public Score getScore() {
     return score;
   }
 
+  /**
+   * @return the dimensions of this space and its initial number of asteroids.
+   */
+  public SpaceConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * @return the seed of the random items of this space.
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * @return the generator of the random items of this space.
+   */
+  public RandomGenerator getGenerator() {
+    return generator;
+  }
+
   public List<Projectile> getProjectiles() { return projectiles; }
 
   public void addProjectile(Projectile projectile) { projectiles.add(projectile); }
 
+  /**
+   * Fires a projectile from the spaceship, reusing a removed projectile
+   * if there is one.
+   */
+  public void fireSpaceshipGun() {
+    addProjectile(spaceship.fire(projectilePool.acquire()));
+  }
+
+  /**
+   * @return the removed projectiles kept to be reused, with their hit and
+   * miss counters.
+   */
+  public ObjectPool<Projectile> getProjectilePool() {
+    return projectilePool;
+  }
+
+  /**
+   * @return the removed asteroids kept to be reused as fragments, with
+   * their hit and miss counters.
+   */
+  public ObjectPool<Asteroid> getAsteroidPool() {
+    return asteroidPool;
+  }
+
+  /**
+   * @return whether collisions are searched using the broad phase grid.
+   */
+  public boolean isBroadPhaseEnabled() {
+    return isBroadPhaseEnabled;
+  }
+
+  /**
+   * Chooses how projectile hits and collisions with the spaceship are
+   * searched. Both methods find the same collisions, in different orders,
+   * and the space evolves the same with either, the brute-force one being
+   * kept for comparison.
+   *
+   * @param isBroadPhaseEnabled true to use the broad phase grid, false to
+   *                            test every asteroid
+   */
+  public void setBroadPhaseEnabled(boolean isBroadPhaseEnabled) {
+    this.isBroadPhaseEnabled = isBroadPhaseEnabled;
+  }
+
+  /**
+   * @return the number of threads updating projectiles and asteroids.
+   */
+  public int getParallelism() {
+    return loop.getParallelism();
+  }
+
+  /**
+   * Chooses how many threads update the projectiles and asteroids and
+   * look for hits, when there are enough of them. Whatever the
+   * parallelism, an update gives the same result.
+   *
+   * @param parallelism the number of threads, 1 for a sequential update
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism == loop.getParallelism()) {
+      return;
+    }
+    loop.shutdown();
+    loop = new ParallelLoop(parallelism, PARALLEL_CHUNK_SIZE);
+  }
+
+  /**
+   * Stops the worker threads started by setParallelism. Must be called
+   * when a space updated in parallel is discarded, otherwise its idle
+   * workers linger until they time out. The space can still be updated
+   * afterwards, sequentially.
+   */
+  public void shutdown() {
+    setParallelism(1);
+  }
+
   public Space() {
-    score = new Score();
-    spaceship = new Spaceship();
-    asteroids = new ArrayList<>(INITIAL_ASTEROID_COUNT);
-    for (int i = 0; i < INITIAL_ASTEROID_COUNT; i++) {
+    this(SpaceConfiguration.DEFAULT);
+  }
+
+  /**
+   * @param configuration the dimensions and initial number of asteroids
+   */
+  public Space(SpaceConfiguration configuration) {
+    this(configuration, new ListAsteroidStore());
+  }
+
+  /**
+   * @param asteroids an empty store, that will contain the asteroids of
+   *                  this space.
+   */
+  public Space(AsteroidStore asteroids) {
+    this(SpaceConfiguration.DEFAULT, asteroids);
+  }
+
+  /**
+   * @param configuration the dimensions and initial number of asteroids
+   * @param asteroids     an empty store, that will contain the asteroids of
+   *                      this space, built for the same configuration.
+   */
+  public Space(SpaceConfiguration configuration, AsteroidStore asteroids) {
+    this(configuration, asteroids, ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Creates a space whose asteroids, and the fragments they break into,
+   * are the same on every run with the same seed.
+   *
+   * @param configuration the dimensions and initial number of asteroids
+   * @param asteroids     an empty store, that will contain the asteroids of
+   *                      this space, built for the same configuration.
+   * @param seed          the seed of the random items of this space
+   */
+  public Space(SpaceConfiguration configuration, AsteroidStore asteroids, long seed) {
+    this(configuration, asteroids, seed,
+      new RandomGenerator(configuration, seed),
+      new Spaceship(configuration),
+      new Score());
+    hasStarted = false;
+    for (int i = 0; i < configuration.getInitialAsteroidCount(); i++) {
       asteroids.add(generateInitialAsteroid());
     }
-    projectiles = new ArrayList<>();
+  }
+
+  /**
+   * Creates a space in a given state, without any projectile. As its
+   * state is not the one generated from its seed, it cannot be recorded.
+   *
+   * @param configuration the dimensions and initial number of asteroids
+   * @param asteroids     a store with the asteroids of this space
+   * @param seed          the seed this space was first generated from
+   * @param generator     the generator of the random items of this space
+   * @param spaceship     the spaceship of this space
+   * @param score         the score of this space
+   */
+  Space(SpaceConfiguration configuration, AsteroidStore asteroids, long seed,
+        RandomGenerator generator, Spaceship spaceship, Score score) {
+    this.configuration = configuration;
+    this.seed = seed;
+    this.generator = generator;
+    this.asteroidGrid = new AsteroidGrid(
+      configuration.getWidth(),
+      configuration.getHeight(),
+      BROAD_PHASE_CELL_SIZE);
+    this.score = score;
+    this.spaceship = spaceship;
+    this.asteroids = asteroids;
+    this.projectiles = new ArrayList<>();
+    this.hasStarted = true;
   }
 
   public void updateProjectiles(double dt) {
-    for (Projectile projectile : projectiles) {
-      projectile.update(dt);
+    timeStep = dt;
+    loop.run(projectiles.size(), projectileUpdater);
+  }
+
+  private void updateProjectileChunk(int chunk, int from, int to) {
+    for (int index = from; index < to; index++) {
+      projectiles.get(index).update(timeStep);
     }
   }
 
 
   public void update(double dt) {
+    if (recorder != null) recorder.recordUpdate(dt);
+    if (journal != null) journal.recordUpdate(dt);
+    hasStarted = true;
     processProjectiles(dt);
     updateScore(dt);
     updateAsteroids(dt);
     if (hasCollision())
       spaceship.invulnerate(3);
+    if (recorder != null) recorder.recordUpdated(this);
+    if (journal != null) journal.recordUpdated(this);
   }
 
-  private void updateAsteroids(double dt) {
-    for (Asteroid asteroid : asteroids) {
-      asteroid.update(dt);
+  /**
+   * Starts recording the commands given to the spaceship and the updates
+   * of this space, so that they can be replayed. Projectiles added
+   * otherwise than by firing are not recorded.
+   *
+   * @param recorder the recorder writing the log
+   * @throws IllegalStateException if the space was already updated, or
+   *                               loaded from a saved state
+   */
+  public void startRecording(InputRecorder recorder) {
+    if (hasStarted) {
+      throw new IllegalStateException("only a space just generated from its seed can be recorded");
+    }
+    recorder.recordStart(this);
+    this.recorder = recorder;
+  }
+
+  /**
+   * Stops recording, and closes the recorder.
+   */
+  public void stopRecording() {
+    if (recorder != null) {
+      recorder.close();
+      recorder = null;
     }
+  }
+
+  /**
+   * Records a command about to be given to the spaceship, if recording
+   * or journaling.
+   *
+   * @param command the command
+   */
+  void recordCommand(SpaceshipCommand command) {
+    if (recorder != null) recorder.recordCommand(command);
+    if (journal != null) journal.recordCommand(command);
+  }
+
+  /**
+   * Starts keeping the recent history of this space in a journal, from
+   * its current state.
+   *
+   * @param journal the journal to write
+   */
+  public void startJournal(SpaceJournal journal) {
+    journal.recordStart(this);
+    this.journal = journal;
+  }
+
+  /**
+   * Stops journaling, and closes the journal.
+   *
+   * @throws IOException if the journal cannot be closed
+   */
+  public void stopJournal() throws IOException {
+    if (journal != null) {
+      journal.close();
+      journal = null;
+    }
+  }
+
+  /**
+   * Hashes what an update changes in this space: the spaceship, the
+   * asteroids, the projectiles and the score. Two replays of the same
+   * log have the same hash after each update, unless they diverged.
+   *
+   * @return a hash of the state of this space
+   */
+  public long stateHash() {
+    long hash = mix(seed, spaceship.getPositionX());
+    hash = mix(hash, spaceship.getPositionY());
+    hash = mix(hash, spaceship.getDirectionAngle());
+    hash = mix(hash, spaceship.getFuelPercentage());
+    hash = mix(hash, spaceship.getInvulnerabilityTime());
+    hash = mix(hash, spaceship.getLife());
+    for (int index = 0; index < asteroids.size(); index++) {
+      Asteroid asteroid = asteroids.asList().get(index);
+      hash = mix(hash, asteroid.getPositionX());
+      hash = mix(hash, asteroid.getPositionY());
+      hash = mix(hash, asteroid.getAngle());
+      hash = mix(hash, asteroid.getSize());
+    }
+    for (Projectile projectile : projectiles) {
+      hash = mix(hash, projectile.getPositionX());
+      hash = mix(hash, projectile.getPositionY());
+    }
+    hash = mix(hash, score.getValue());
+    return mix(hash, score.getMultiplier());
+  }
+
+  private static long mix(long hash, double value) {
+    long bits = Double.doubleToLongBits(value);
+    return Long.rotateLeft(hash ^ bits, 29) * 0x9E3779B97F4A7C15L;
+  }
+
+  private void updateAsteroids(double dt) {
+    timeStep = dt;
+    loop.run(asteroids.size(), asteroidUpdater);
     spaceship.update(dt);
   }
 
+  private void updateAsteroidChunk(int chunk, int from, int to) {
+    asteroids.update(from, to, timeStep);
+  }
+
   private void updateScore(double dt){
     score.update(dt);
   }
@@ -118,37 +506,34 @@ public class Space {
 
 
   /**
-   * Because the space is toric (things leaving the window on one side
-   * reappear on the other side), we need to compute the positions of items
-   * leaving the screen to get them back on the other side. This method takes
-   * an arbitrary vector and maps it to valid toric coordinates.
-   *
-   * @param position any position
-   * @return the same position with canonical toric coordinates
-   */
-  public static Vector toricRemap(Vector position) {
-    return new Vector(
-      clamp(position.getX(), SPACE_WIDTH),
-      clamp(position.getY(), SPACE_HEIGHT)
-    );
-  }
-
-
-  /**
-   * Used by remapPosition to compute coordinates between 0 and a bound.
+   * Interpolates a coordinate between two successive states, going the
+   * shortest way around the torus, so that objects crossing a border are
+   * not drawn sliding across the whole space.
    *
-   * @param value the coordinate to recompute
-   * @param bound the maximum value allowed for this coordinate
-   * @return the corrected coordinate
+   * @param previous the coordinate in the previous state
+   * @param current  the coordinate in the current state
+   * @param alpha    the fraction of the way from previous to current
+   * @param bound    the period of the coordinate
+   * @return the interpolated coordinate, possibly outside of [0, bound)
    */
-  private static double clamp(double value, double bound) {
-    return value - Math.floor( value / bound) * bound;
+  public static double interpolate(double previous, double current, double alpha, double bound) {
+    double delta = current - previous;
+    if (delta > bound / 2) {
+      delta = delta - bound;
+    } else if (delta < -bound / 2) {
+      delta = delta + bound;
+    }
+    return previous + alpha * delta;
   }
 
   /**
    * @return whether the spaceship collides at least an asteroid.
    */
   public boolean hasCollision() {
+    spaceship.clearCollision();
+    if (isBroadPhaseEnabled) {
+      return hasCollisionNearby();
+    }
     for(Asteroid asteroid : this.getAsteroids()) {
       if(this.getSpaceship().collides(asteroid))
         return true;
@@ -156,62 +541,213 @@ public class Space {
     return false;
   }
 
-
-  private List<Projectile> getDeadProjectiles() {
-    List<Projectile> deadProjectiles = new ArrayList<>();
-    for (Projectile projectile : getProjectiles()) {
-      if(!projectile.isAlive()) {
-        deadProjectiles.add(projectile);
+  /**
+   * Same as hasCollision, but the spaceship is only tested against the
+   * asteroids whose center is close enough, as read from the store. This
+   * sequential scan is cheaper than rebuilding the grid once the asteroids
+   * have moved.
+   */
+  private boolean hasCollisionNearby() {
+    double x = spaceship.getPositionX();
+    double y = spaceship.getPositionY();
+    // the cells are at least as large as the radius of any asteroid
+    double reach = Spaceship.getContactRadius() + BROAD_PHASE_CELL_SIZE;
+    for (int index = 0; index < asteroids.size(); index++) {
+      double dx = asteroids.getPositionX(index) - x;
+      double dy = asteroids.getPositionY(index) - y;
+      if (dx * dx + dy * dy <= reach * reach
+        && spaceship.collides(getAsteroids().get(index))) {
+        return true;
       }
     }
-    return deadProjectiles;
+    return false;
   }
 
+
   private  void removeDeadProjectiles() {
-    for (Projectile deadProjectile : getDeadProjectiles()) {
-      getProjectiles().remove(deadProjectile);
+    for (Projectile projectile : projectiles) {
+      if (!projectile.isAlive()) {
+        projectilePool.release(projectile);
+      }
     }
+    getProjectiles().removeIf(projectile -> !projectile.isAlive());
   }
 
-  private void findProjectilesHits(Set<Projectile> hittingProjectiles, Set<Asteroid> hittedAsteroid) {
-    for (Projectile projectile : getProjectiles()) {
-      for (Asteroid asteroid : getAsteroids() ) {
-        if (projectile.Hits(asteroid)){
-          getScore().addMultiplier(score.getMultiplierModifierValue());
-          getScore().notifyAsteroidHit(score.getPoints());
-          getScore().putMultiplierTimeBackTo(score.getRebootTime());
-          hittingProjectiles.add(projectile);
-          hittedAsteroid.add(asteroid);
+  private void findProjectilesHits() {
+    if (projectiles.isEmpty()) {
+      return;
+    }
+    if (isBroadPhaseEnabled) {
+      asteroidGrid.rebuild(asteroids);
+    }
+    int chunkCount = loop.getChunkCount(projectiles.size());
+    if (chunkCount == 1) {
+      for (Projectile projectile : getProjectiles()) {
+        forEachCandidate(projectile, hitChecker);
+      }
+      return;
+    }
+    findProjectilesHitsInParallel(chunkCount);
+  }
+
+  /**
+   * Same as findProjectilesHits, with the projectiles split into chunks
+   * handled by the worker threads. Workers only read the state of the
+   * space, collecting the pairs that pass the bounding circle test into
+   * their own buffer. The pairs are then checked and scored sequentially,
+   * chunk after chunk, in the same order as the sequential search, so the
+   * outcome does not depend on the parallelism.
+   *
+   * @param chunkCount the number of chunks of projectiles
+   */
+  private void findProjectilesHitsInParallel(int chunkCount) {
+    if (hitCandidates.length < chunkCount) {
+      hitCandidates = Arrays.copyOf(hitCandidates, chunkCount);
+      for (int chunk = 0; chunk < chunkCount; chunk++) {
+        if (hitCandidates[chunk] == null) {
+          hitCandidates[chunk] = new HitCandidates();
         }
       }
     }
+    loop.run(projectiles.size(), hitSearcher);
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      hitCandidates[chunk].checkHits();
+    }
+  }
+
+  private void findHitCandidateChunk(int chunk, int from, int to) {
+    for (int index = from; index < to; index++) {
+      forEachCandidate(projectiles.get(index), hitCandidates[chunk]);
+    }
+  }
+
+
+  /**
+   * Calls an action with a projectile and each asteroid it may hit: the
+   * asteroids in the grid cells around the path of the projectile during
+   * the last update when the broad phase is enabled, every asteroid
+   * otherwise. The path is short for usual delays, so this is the nine
+   * cells around the projectile, but longer delays or faster projectiles
+   * widen the searched block of cells.
+   *
+   * @param projectile a projectile
+   * @param action     what to do with each pair of the projectile and an
+   *                   asteroid
+   */
+  private void forEachCandidate(Projectile projectile, CandidateAction action) {
+    if (!isBroadPhaseEnabled) {
+      for (int index = 0; index < asteroids.size(); index++) {
+        action.accept(projectile, index);
+      }
+      return;
+    }
+    int firstColumn = asteroidGrid.column(
+      Math.min(projectile.getPreviousPositionX(), projectile.getPositionX())) - 1;
+    int lastColumn = asteroidGrid.column(
+      Math.max(projectile.getPreviousPositionX(), projectile.getPositionX())) + 1;
+    int firstRow = asteroidGrid.row(
+      Math.min(projectile.getPreviousPositionY(), projectile.getPositionY())) - 1;
+    int lastRow = asteroidGrid.row(
+      Math.max(projectile.getPreviousPositionY(), projectile.getPositionY())) + 1;
+    // each cell at most once, even if the block wraps around the grid
+    lastColumn = Math.min(lastColumn, firstColumn + asteroidGrid.getColumnCount() - 1);
+    lastRow = Math.min(lastRow, firstRow + asteroidGrid.getRowCount() - 1);
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        int cell = asteroidGrid.cell(column, row);
+        for (int position = asteroidGrid.first(cell);
+             position >= 0;
+             position = asteroidGrid.next(cell, position)) {
+          action.accept(projectile, asteroidGrid.indexAt(position));
+        }
+      }
+    }
+  }
+
+  private void checkHit(Projectile projectile, int index) {
+    Asteroid asteroid = getAsteroids().get(index);
+    if (projectile.Hits(asteroid)){
+      getScore().addMultiplier(score.getMultiplierModifierValue());
+      getScore().notifyAsteroidHit(score.getPoints());
+      getScore().putMultiplierTimeBackTo(score.getRebootTime());
+      hittingProjectiles.add(projectile);
+      if (hittedAsteroids.add(asteroid)) {
+        if (hittedAsteroids.size() > hittedIndices.length) {
+          hittedIndices = Arrays.copyOf(hittedIndices, 2 * hittedIndices.length);
+        }
+        hittedIndices[hittedAsteroids.size() - 1] = index;
+      }
+    }
+  }
+
+  /**
+   * The pairs of a projectile and an asteroid found by a worker thread,
+   * such that the path of the projectile meets the bounding circle of the
+   * asteroid.
+   */
+  private class HitCandidates implements CandidateAction {
+
+    private final List<Projectile> candidateProjectiles = new ArrayList<>();
+    private int[] candidateIndices = new int[16];
+
+    @Override
+    public void accept(Projectile projectile, int index) {
+      if (projectile.mayHit(getAsteroids().get(index))) {
+        if (candidateProjectiles.size() == candidateIndices.length) {
+          candidateIndices = Arrays.copyOf(candidateIndices, 2 * candidateIndices.length);
+        }
+        candidateIndices[candidateProjectiles.size()] = index;
+        candidateProjectiles.add(projectile);
+      }
+    }
+
+    /**
+     * Checks and scores the pairs found, in the order they were found,
+     * then forgets them.
+     */
+    void checkHits() {
+      for (int i = 0; i < candidateProjectiles.size(); i++) {
+        checkHit(candidateProjectiles.get(i), candidateIndices[i]);
+      }
+      candidateProjectiles.clear();
+    }
   }
 
   private void remove(Set<Projectile> hittingProjectiles) {
-    for (Projectile hittingProjectile : hittingProjectiles) {
-      getProjectiles().remove(hittingProjectile);
+    if (hittingProjectiles.isEmpty()) {
+      return;
+    }
+    getProjectiles().removeAll(hittingProjectiles);
+    for (Projectile projectile : hittingProjectiles) {
+      projectilePool.release(projectile);
     }
   }
 
 
   private void processProjectiles(double dt) {
     updateProjectiles(dt);
-    Set<Projectile> hittingProjectiles = new HashSet<>();
-    Set<Asteroid> hittedAsteroids = new HashSet<>();
-    findProjectilesHits(hittingProjectiles, hittedAsteroids);
+    hittingProjectiles.clear();
+    hittedAsteroids.clear();
+    findProjectilesHits();
     remove(hittingProjectiles);
     fragment(hittedAsteroids);
     removeDeadProjectiles();
   }
 
   private void fragment(Set<Asteroid> hittedAsteroids) {
-    for (Asteroid hittedAsteroid : hittedAsteroids) {
-      getAsteroids().remove(hittedAsteroid);
+    if (hittedAsteroids.isEmpty()) {
+      return;
     }
-    for (Asteroid hittedAsteroid : hittedAsteroids) {
-      for (Asteroid fragment : hittedAsteroid.fragments()) {
-        getAsteroids().add(fragment);
-      }
+    int hitCount = hittedAsteroids.size();
+    Arrays.sort(hittedIndices, 0, hitCount);
+    fragmentedAsteroids.clear();
+    for (int i = 0; i < hitCount; i++) {
+      fragmentedAsteroids.add(getAsteroids().get(hittedIndices[i]));
+    }
+    asteroids.removeAll(hittedAsteroids);
+    for (Asteroid hittedAsteroid : fragmentedAsteroids) {
+      hittedAsteroid.addFragmentsTo(asteroids, generator, asteroidPool);
+      asteroidPool.release(hittedAsteroid);
     }
   }
 
@@ -0,0 +1,187 @@
+package game;
+
+import tools.MutableVector;
+import tools.Vector;
+
+/**
+ * The dimensions of a toric space, the number of asteroids it starts
+ * with, and how many shapes its asteroids can have. Configurations are
+ * immutable: the with methods return modified copies. The default one is
+ * the classic 800x800 window with 10 asteroids, larger ones are meant for
+ * headless runs and benchmarks.
+ * <p>
+ * Since the space is toric, the configuration also knows how to map
+ * positions back into the space.
+ */
+public class SpaceConfiguration {
+
+  /**
+   * The configuration of the game displayed in the window.
+   */
+  public static final SpaceConfiguration DEFAULT =
+    new SpaceConfiguration(800, 800, 10);
+
+  private final double width;
+  private final double height;
+  private final int initialAsteroidCount;
+  private final int shapePoolSize;
+
+  /**
+   * Same as the full constructor, with the default shape pool size.
+   *
+   * @param width                the width of space, in pixels
+   * @param height               the height of space, in pixels
+   * @param initialAsteroidCount the number of asteroids at the start of
+   *                             the game
+   */
+  public SpaceConfiguration(double width, double height, int initialAsteroidCount) {
+    this(width, height, initialAsteroidCount, ShapePool.DEFAULT_SIZE);
+  }
+
+  /**
+   * @param width                the width of space, in pixels
+   * @param height               the height of space, in pixels
+   * @param initialAsteroidCount the number of asteroids at the start of
+   *                             the game
+   * @param shapePoolSize        the number of shapes asteroids with a
+   *                             given number of vertices can have
+   */
+  public SpaceConfiguration(double width, double height, int initialAsteroidCount,
+                            int shapePoolSize) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("space must have a positive size");
+    }
+    if (initialAsteroidCount < 0) {
+      throw new IllegalArgumentException("negative asteroid count");
+    }
+    if (shapePoolSize <= 0) {
+      throw new IllegalArgumentException("shape pool size must be positive");
+    }
+    this.width = width;
+    this.height = height;
+    this.initialAsteroidCount = initialAsteroidCount;
+    this.shapePoolSize = shapePoolSize;
+  }
+
+  public double getWidth() {
+    return width;
+  }
+
+  public double getHeight() {
+    return height;
+  }
+
+  public int getInitialAsteroidCount() {
+    return initialAsteroidCount;
+  }
+
+  public int getShapePoolSize() {
+    return shapePoolSize;
+  }
+
+  /**
+   * @param width  the new width of space
+   * @param height the new height of space
+   * @return a copy of this configuration with another size.
+   */
+  public SpaceConfiguration withSize(double width, double height) {
+    return new SpaceConfiguration(width, height, initialAsteroidCount, shapePoolSize);
+  }
+
+  /**
+   * @param initialAsteroidCount the new number of asteroids
+   * @return a copy of this configuration with another number of asteroids.
+   */
+  public SpaceConfiguration withInitialAsteroidCount(int initialAsteroidCount) {
+    return new SpaceConfiguration(width, height, initialAsteroidCount, shapePoolSize);
+  }
+
+  /**
+   * @param shapePoolSize the new number of shapes per number of vertices
+   * @return a copy of this configuration with another shape pool size.
+   */
+  public SpaceConfiguration withShapePoolSize(int shapePoolSize) {
+    return new SpaceConfiguration(width, height, initialAsteroidCount, shapePoolSize);
+  }
+
+  /**
+   * Scales the space so that another number of asteroids has the same
+   * density as in this configuration, keeping the same aspect ratio.
+   *
+   * @param initialAsteroidCount the new number of asteroids
+   * @return a copy of this configuration with that many asteroids in
+   * a space of the matching size.
+   */
+  public SpaceConfiguration withSameDensity(int initialAsteroidCount) {
+    double scale = (this.initialAsteroidCount == 0) ?
+      1 :
+      Math.sqrt((double) initialAsteroidCount / this.initialAsteroidCount);
+    return new SpaceConfiguration(
+      width * Math.max(1, scale),
+      height * Math.max(1, scale),
+      initialAsteroidCount,
+      shapePoolSize);
+  }
+
+
+  /**
+   * Because the space is toric (things leaving the window on one side
+   * reappear on the other side), we need to compute the positions of items
+   * leaving the screen to get them back on the other side. This method takes
+   * an arbitrary vector and maps it to valid toric coordinates.
+   *
+   * @param position any position
+   * @return the same position with canonical toric coordinates
+   */
+  public Vector toricRemap(Vector position) {
+    return new Vector(
+      toricRemapX(position.getX()),
+      toricRemapY(position.getY())
+    );
+  }
+
+  /**
+   * Same as toricRemap, modifying the position in place.
+   *
+   * @param position any position, mapped to canonical toric coordinates
+   */
+  public void toricRemap(MutableVector position) {
+    position.set(
+      toricRemapX(position.getX()),
+      toricRemapY(position.getY())
+    );
+  }
+
+  /**
+   * @param x any abscissa
+   * @return the same abscissa in canonical toric coordinates
+   */
+  public double toricRemapX(double x) {
+    return clamp(x, width);
+  }
+
+  /**
+   * @param y any ordinate
+   * @return the same ordinate in canonical toric coordinates
+   */
+  public double toricRemapY(double y) {
+    return clamp(y, height);
+  }
+
+  /**
+   * Used by toricRemap to compute coordinates between 0 and a bound.
+   *
+   * @param value the coordinate to recompute
+   * @param bound the maximum value allowed for this coordinate
+   * @return the corrected coordinate
+   */
+  private static double clamp(double value, double bound) {
+    return value - Math.floor(value / bound) * bound;
+  }
+
+  @Override
+  public String toString() {
+    return width + "x" + height + ", " + initialAsteroidCount + " asteroids, "
+      + shapePoolSize + " shapes per vertex count";
+  }
+}
@@ -0,0 +1,471 @@
+package game;
+
+import tools.ByteRing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Keeps the recent history of a space in a memory-mapped file of fixed
+ * size, so that any tick of the last minutes can be restored. The space
+ * is saved periodically (a keyframe), and each tick in between is logged
+ * as a delta: the commands given to the spaceship and the delay of the
+ * update, which are enough to replay the tick deterministically.
+ * <p>
+ * The thread updating the space only encodes the records into reused
+ * buffers and hands them over to a writer thread through a ByteRing, so
+ * that it never waits for the file and does not allocate for ticks. If
+ * the writer falls behind and the ring is full, records are dropped and
+ * counted, and a new keyframe is written as soon as possible. A keyframe
+ * too large to ever fit in the ring disables keyframes instead, since it
+ * would otherwise be saved again at every tick. The writer
+ * appends the records to a circular data area of the file, after a header
+ * holding the position of the next record and an index of the last
+ * keyframes. Since the file is mapped, what was written survives the end
+ * of the game, even without calling close.
+ */
+public class SpaceJournal {
+
+  public static final int MAGIC = 0x41534A52;
+  public static final byte VERSION = 1;
+
+  /**
+   * The default size of the data area of the file, in bytes.
+   */
+  public static final int DEFAULT_CAPACITY = 64 << 20;
+
+  /**
+   * The default simulated delay between two keyframes, in seconds.
+   */
+  public static final double DEFAULT_KEYFRAME_PERIOD = 5;
+
+  private static final int VERSION_OFFSET = 4;
+  private static final int OPEN_OFFSET = 5;
+  private static final int CAPACITY_OFFSET = 8;
+  private static final int KEYFRAME_SLOTS_OFFSET = 12;
+  private static final int HEAD_OFFSET = 16;
+  private static final int KEYFRAME_COUNT_OFFSET = 24;
+  private static final int KEYFRAMES_OFFSET = 32;
+  private static final int KEYFRAME_SLOTS = 256;
+  private static final int KEYFRAME_BYTES = 16;
+  private static final int HEADER_BYTES = KEYFRAMES_OFFSET + KEYFRAME_SLOTS * KEYFRAME_BYTES;
+
+  private static final byte KEYFRAME = 1;
+  private static final byte TICK = 2;
+
+  /**
+   * The bytes of a record before its payload: its type and tick.
+   */
+  private static final int RECORD_HEADER_BYTES = 1 + 8;
+
+  /**
+   * Written instead of a record length when the rest of the data area is
+   * skipped, the next record being at its beginning.
+   */
+  private static final int PADDING = -1;
+
+  private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  // Used by the thread updating the space only.
+  private final double keyframePeriod;
+  private ByteBuffer record = ByteBuffer.allocate(1024);
+  private byte[] commands = new byte[16];
+  private int commandCount = 0;
+  private long tick = 0;
+  private double sinceKeyframe = 0;
+  private boolean isKeyframePending = true;
+  private boolean areKeyframesDisabled = false;
+  private final ShapeIndex shapes = new ShapeIndex();
+  private volatile long droppedRecords = 0;
+
+  // Shared by both threads.
+  private final ByteRing staging;
+  private volatile boolean isRunning = true;
+
+  // Used by the writer thread only.
+  private final FileChannel channel;
+  private final MappedByteBuffer file;
+  private final int capacity;
+  private final byte[] written;
+  private final ByteBuffer writtenView;
+  private long head = 0;
+  private long keyframeCount = 0;
+  private final Thread writer;
+
+  /**
+   * Same as the full constructor, with the default capacity and keyframe
+   * period.
+   *
+   * @param path the file to write, replaced if it exists
+   * @throws IOException if the file cannot be created
+   */
+  public SpaceJournal(Path path) throws IOException {
+    this(path, DEFAULT_CAPACITY, DEFAULT_KEYFRAME_PERIOD);
+  }
+
+  /**
+   * Creates the file and starts the writer thread.
+   *
+   * @param path           the file to write, replaced if it exists
+   * @param capacity       the size of the data area, in bytes, which must
+   *                       be several times larger than a saved space
+   * @param keyframePeriod the simulated delay between two keyframes, in
+   *                       seconds
+   * @throws IOException if the file cannot be created
+   */
+  public SpaceJournal(Path path, int capacity, double keyframePeriod) throws IOException {
+    if (capacity <= 0 || capacity > Integer.MAX_VALUE - HEADER_BYTES) {
+      throw new IllegalArgumentException("invalid capacity " + capacity);
+    }
+    this.capacity = capacity;
+    this.keyframePeriod = keyframePeriod;
+    this.staging = new ByteRing(Integer.highestOneBit(Math.max(capacity / 4, 1 << 16)));
+    this.written = new byte[staging.getCapacity()];
+    this.writtenView = ByteBuffer.wrap(written);
+    this.channel = FileChannel.open(path,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.TRUNCATE_EXISTING,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE);
+    this.file = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + capacity);
+    file.putInt(0, MAGIC);
+    file.put(VERSION_OFFSET, VERSION);
+    file.put(OPEN_OFFSET, (byte) 1);
+    file.putInt(CAPACITY_OFFSET, capacity);
+    file.putInt(KEYFRAME_SLOTS_OFFSET, KEYFRAME_SLOTS);
+    file.putLong(HEAD_OFFSET, 0);
+    file.putLong(KEYFRAME_COUNT_OFFSET, 0);
+    this.writer = new Thread(this::write, "journal");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * @return the number of records dropped because the writer thread
+   * could not keep up.
+   */
+  public long getDroppedRecords() {
+    return droppedRecords;
+  }
+
+  /**
+   * @return whether keyframes are no longer written, because the space
+   * grew too large for the buffer between the two threads. Ticks are
+   * still logged, and can be restored from the previous keyframes.
+   */
+  public boolean areKeyframesDisabled() {
+    return areKeyframesDisabled;
+  }
+
+  /**
+   * Writes a first keyframe.
+   *
+   * @param space the space about to be journaled
+   */
+  void recordStart(Space space) {
+    writeKeyframe(space);
+  }
+
+  /**
+   * @param command a command about to be given to the spaceship
+   */
+  void recordCommand(SpaceshipCommand command) {
+    if (commandCount == commands.length) {
+      commands = Arrays.copyOf(commands, 2 * commandCount);
+    }
+    commands[commandCount++] = (byte) command.ordinal();
+  }
+
+  /**
+   * Logs the tick about to be simulated, with the commands given since
+   * the previous one.
+   *
+   * @param dt the delay the space is about to be updated by
+   */
+  void recordUpdate(double dt) {
+    ensureRecordCapacity(RECORD_HEADER_BYTES + 8 + 4 + commandCount);
+    record.clear();
+    record.put(TICK).putLong(tick).putDouble(dt).putInt(commandCount);
+    record.put(commands, 0, commandCount);
+    offer();
+    commandCount = 0;
+    tick++;
+    sinceKeyframe += dt;
+  }
+
+  /**
+   * Writes a keyframe if one is due.
+   *
+   * @param space the space just updated
+   */
+  void recordUpdated(Space space) {
+    if (isKeyframePending || sinceKeyframe >= keyframePeriod) {
+      writeKeyframe(space);
+    }
+  }
+
+  private void writeKeyframe(Space space) {
+    if (areKeyframesDisabled) {
+      return;
+    }
+    shapes.index(space.getAsteroids());
+    int size = RECORD_HEADER_BYTES + SpaceSerializer.sizeOf(space, shapes);
+    if (size > staging.getMaxRecordLength()) {
+      areKeyframesDisabled = true;
+      isKeyframePending = false;
+      droppedRecords++;
+      return;
+    }
+    ensureRecordCapacity(size);
+    record.clear();
+    record.put(KEYFRAME).putLong(tick);
+    SpaceSerializer.save(space, record, shapes);
+    if (offer()) {
+      isKeyframePending = false;
+      sinceKeyframe = 0;
+    }
+  }
+
+  private void ensureRecordCapacity(int size) {
+    if (record.capacity() < size) {
+      record = ByteBuffer.allocate(Math.max(size, 2 * record.capacity()));
+    }
+  }
+
+  /**
+   * Hands the current record over to the writer thread.
+   *
+   * @return whether there was room for it
+   */
+  private boolean offer() {
+    if (staging.offer(record.array(), 0, record.position())) {
+      return true;
+    }
+    droppedRecords++;
+    isKeyframePending = true;
+    return false;
+  }
+
+  /**
+   * Waits for the writer thread to write every record handed over, then
+   * closes the file. Must be called by the thread updating the space,
+   * once it stopped journaling.
+   *
+   * @throws IOException if the file cannot be closed
+   */
+  public void close() throws IOException {
+    isRunning = false;
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    file.put(OPEN_OFFSET, (byte) 0);
+    file.force();
+    channel.close();
+  }
+
+  private void write() {
+    while (true) {
+      int length = staging.poll(written);
+      if (length >= 0) {
+        append(length);
+      } else if (isRunning) {
+        LockSupport.parkNanos(IDLE_NANOS);
+      } else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Appends the record in written to the data area.
+   *
+   * @param length the length of the record
+   */
+  private void append(int length) {
+    if (4 + length > capacity) {
+      return;
+    }
+    int offset = (int) (head % capacity);
+    int room = capacity - offset;
+    if (room < 4 + length) {
+      if (room >= 4) {
+        file.putInt(HEADER_BYTES + offset, PADDING);
+      }
+      head += room;
+      offset = 0;
+    }
+    file.putInt(HEADER_BYTES + offset, length);
+    file.position(HEADER_BYTES + offset + 4);
+    file.put(written, 0, length);
+    if (written[0] == KEYFRAME) {
+      int slot = (int) (keyframeCount % KEYFRAME_SLOTS);
+      file.putLong(KEYFRAMES_OFFSET + slot * KEYFRAME_BYTES, writtenView.getLong(1));
+      file.putLong(KEYFRAMES_OFFSET + slot * KEYFRAME_BYTES + 8, head);
+      keyframeCount++;
+      file.putLong(KEYFRAME_COUNT_OFFSET, keyframeCount);
+    }
+    head += 4 + length;
+    file.putLong(HEAD_OFFSET, head);
+  }
+
+
+  /**
+   * Reads a journal, to restore the space at one of its ticks. The file is
+   * read at once, and can be read while still being written: then the
+   * oldest records, about to be overwritten, are ignored.
+   */
+  public static class Reader {
+
+    private final ByteBuffer data;
+    private final int capacity;
+    private final long head;
+
+    /**
+     * The valid keyframes, as pairs of a tick and a position, from the
+     * oldest to the newest.
+     */
+    private final List<long[]> keyframes = new ArrayList<>();
+
+    /**
+     * @param data the content of a journal file
+     * @throws IllegalArgumentException if it is not a journal
+     */
+    public Reader(ByteBuffer data) {
+      this.data = data;
+      if (data.limit() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+        throw new IllegalArgumentException("not a journal");
+      }
+      if (data.get(VERSION_OFFSET) != VERSION) {
+        throw new IllegalArgumentException("unsupported journal version " + data.get(VERSION_OFFSET));
+      }
+      this.capacity = data.getInt(CAPACITY_OFFSET);
+      this.head = data.getLong(HEAD_OFFSET);
+      boolean isOpen = data.get(OPEN_OFFSET) != 0;
+      long oldest = head - capacity + (isOpen ? capacity / 4 : 0);
+      long keyframeCount = data.getLong(KEYFRAME_COUNT_OFFSET);
+      int slots = data.getInt(KEYFRAME_SLOTS_OFFSET);
+      for (long index = Math.max(0, keyframeCount - slots); index < keyframeCount; index++) {
+        int slot = (int) (index % slots);
+        long keyframeTick = data.getLong(KEYFRAMES_OFFSET + slot * KEYFRAME_BYTES);
+        long position = data.getLong(KEYFRAMES_OFFSET + slot * KEYFRAME_BYTES + 8);
+        if (position >= oldest) {
+          keyframes.add(new long[]{keyframeTick, position});
+        }
+      }
+    }
+
+    /**
+     * @param path the path of a journal file
+     * @return a reader of the journal
+     * @throws IOException if the file cannot be read
+     */
+    public static Reader open(Path path) throws IOException {
+      return new Reader(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    /**
+     * @return the first tick whose state can be restored, or -1 if none.
+     */
+    public long getFirstTick() {
+      return keyframes.isEmpty() ? -1 : keyframes.get(0)[0];
+    }
+
+    /**
+     * @return the last tick whose state can be restored, or -1 if none.
+     */
+    public long getLastTick() {
+      if (keyframes.isEmpty()) {
+        return -1;
+      }
+      long[] keyframe = keyframes.get(keyframes.size() - 1);
+      return replay(keyframe[0], keyframe[1], null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Restores the space as it was at a tick, from the last keyframe
+     * before it, replaying the ticks in between.
+     *
+     * @param targetTick   the number of updates since the journal started
+     * @param storeFactory creates the empty store of the asteroids of the
+     *                     space
+     * @return the space restored
+     * @throws IllegalArgumentException if the tick is not in the journal
+     */
+    public Space spaceAt(long targetTick,
+                         Function<SpaceConfiguration, AsteroidStore> storeFactory) {
+      long[] keyframe = null;
+      for (long[] candidate : keyframes) {
+        if (candidate[0] <= targetTick) {
+          keyframe = candidate;
+        }
+      }
+      if (keyframe == null) {
+        throw new IllegalArgumentException("tick " + targetTick + " not in journal");
+      }
+      int offset = (int) (keyframe[1] % capacity);
+      int length = data.getInt(HEADER_BYTES + offset);
+      ByteBuffer saved = data.duplicate();
+      saved.limit(HEADER_BYTES + offset + 4 + length);
+      saved.position(HEADER_BYTES + offset + 4 + RECORD_HEADER_BYTES);
+      Space space = SpaceSerializer.load(saved.slice(), storeFactory);
+      if (replay(keyframe[0], keyframe[1], space, targetTick) != targetTick) {
+        throw new IllegalArgumentException("tick " + targetTick + " not in journal");
+      }
+      return space;
+    }
+
+    /**
+     * Goes through the ticks following a keyframe, as long as they are
+     * consecutive.
+     *
+     * @param firstTick  the tick of the keyframe
+     * @param position   the position of the keyframe
+     * @param space      the space to update with the ticks, or null
+     * @param targetTick the tick at which to stop
+     * @return the tick reached.
+     */
+    private long replay(long firstTick, long position, Space space, long targetTick) {
+      SpaceshipCommand[] allCommands = SpaceshipCommand.values();
+      long current = firstTick;
+      while (position < head && current < targetTick) {
+        int offset = (int) (position % capacity);
+        int room = capacity - offset;
+        int length = (room < 4) ? PADDING : data.getInt(HEADER_BYTES + offset);
+        if (length == PADDING) {
+          position += room;
+          continue;
+        }
+        int start = HEADER_BYTES + offset + 4;
+        if (data.get(start) == TICK) {
+          if (data.getLong(start + 1) != current) {
+            break;
+          }
+          if (space != null) {
+            int commandCount = data.getInt(start + RECORD_HEADER_BYTES + 8);
+            for (int i = 0; i < commandCount; i++) {
+              allCommands[data.get(start + RECORD_HEADER_BYTES + 12 + i)].applyTo(space);
+            }
+            space.update(data.getDouble(start + RECORD_HEADER_BYTES));
+          }
+          current++;
+        }
+        position += 4 + length;
+      }
+      return current;
+    }
+  }
+}
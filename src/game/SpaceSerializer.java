@@ -0,0 +1,183 @@
+package game;
+
+import tools.Polygon;
+import tools.Vector;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Saves the whole state of a space into a compact binary form, and loads
+ * it back: the configuration and seed of the space, the state of its
+ * random generator, its score with the multiplier timer, its spaceship,
+ * its projectiles, and its asteroids. The shapes of the asteroids are
+ * written once each, before the asteroids referring to them, so that
+ * loaded asteroids share their shapes like the saved ones.
+ * A loaded space evolves exactly like the saved one would have, given the
+ * same commands and updates.
+ * <p>
+ * The state is written field by field into a ByteBuffer, in big-endian
+ * order, after {@link #MAGIC} and {@link #VERSION}. Each class writes and
+ * reads its own fields, without reflection.
+ */
+public class SpaceSerializer {
+
+  public static final int MAGIC = 0x41535356;
+  public static final byte VERSION = 2;
+
+  private static final int HEADER_BYTES = 4 + 1 + 8 + 8 + 4 + 4 + 8;
+
+  private SpaceSerializer() {}
+
+  /**
+   * @param space a space
+   * @return the number of bytes written by save for that space.
+   */
+  public static int sizeOf(Space space) {
+    return sizeOf(space, new ShapeIndex().index(space.getAsteroids()));
+  }
+
+  /**
+   * @param space  a space
+   * @param shapes the shapes of the asteroids of the space
+   * @return the number of bytes written by save for that space.
+   */
+  static int sizeOf(Space space, ShapeIndex shapes) {
+    int size = HEADER_BYTES + RandomGenerator.BYTES + Score.BYTES + Spaceship.BYTES;
+    size += 4 + space.getProjectiles().size() * Projectile.BYTES;
+    size += 4 + shapes.size() * 4 + shapes.getVertexCount() * 2 * 8;
+    size += 4 + space.getAsteroids().size() * Asteroid.BYTES;
+    return size;
+  }
+
+  /**
+   * @param space the space to save
+   * @return a new buffer holding the state of the space, ready to be read
+   */
+  public static ByteBuffer save(Space space) {
+    ShapeIndex shapes = new ShapeIndex().index(space.getAsteroids());
+    ByteBuffer buffer = ByteBuffer.allocate(sizeOf(space, shapes));
+    save(space, buffer, shapes);
+    return buffer.flip();
+  }
+
+  /**
+   * Writes the state of a space at the position of a buffer, which must
+   * have at least sizeOf(space) bytes remaining.
+   *
+   * @param space  the space to save
+   * @param buffer where to write
+   */
+  public static void save(Space space, ByteBuffer buffer) {
+    save(space, buffer, new ShapeIndex().index(space.getAsteroids()));
+  }
+
+  /**
+   * Same as save, with the shapes of the asteroids already indexed, so
+   * that a caller saving repeatedly can reuse its index.
+   *
+   * @param space  the space to save
+   * @param buffer where to write, with at least sizeOf(space) bytes
+   *               remaining
+   * @param shapes the shapes of the asteroids of the space
+   */
+  static void save(Space space, ByteBuffer buffer, ShapeIndex shapes) {
+    SpaceConfiguration configuration = space.getConfiguration();
+    buffer.putInt(MAGIC);
+    buffer.put(VERSION);
+    buffer.putDouble(configuration.getWidth());
+    buffer.putDouble(configuration.getHeight());
+    buffer.putInt(configuration.getInitialAsteroidCount());
+    buffer.putInt(configuration.getShapePoolSize());
+    buffer.putLong(space.getSeed());
+    space.getGenerator().writeTo(buffer);
+    space.getScore().writeTo(buffer);
+    space.getSpaceship().writeTo(buffer);
+    buffer.putInt(space.getProjectiles().size());
+    for (Projectile projectile : space.getProjectiles()) {
+      projectile.writeTo(buffer);
+    }
+    buffer.putInt(shapes.size());
+    for (int index = 0; index < shapes.size(); index++) {
+      Polygon shape = shapes.get(index);
+      buffer.putInt(shape.nbVertices());
+      for (int i = 0; i < shape.nbVertices(); i++) {
+        buffer.putDouble(shape.getVertexX(i));
+        buffer.putDouble(shape.getVertexY(i));
+      }
+    }
+    List<Asteroid> asteroids = space.getAsteroids();
+    buffer.putInt(asteroids.size());
+    for (int i = 0; i < asteroids.size(); i++) {
+      Asteroid asteroid = asteroids.get(i);
+      asteroid.writeTo(buffer, shapes.indexOf(asteroid.getLocalShape()));
+    }
+  }
+
+  /**
+   * Same as load, with the asteroids kept in a list.
+   *
+   * @param buffer where to read a saved space
+   * @return the space read
+   */
+  public static Space load(ByteBuffer buffer) {
+    return load(buffer, configuration -> new ListAsteroidStore());
+  }
+
+  /**
+   * Reads a space saved by save, from the position of a buffer.
+   *
+   * @param buffer       where to read
+   * @param storeFactory creates the empty store of the asteroids of the
+   *                     space read, for its configuration
+   * @return the space read
+   * @throws IllegalArgumentException if the buffer does not hold a saved
+   *                                  space
+   */
+  public static Space load(ByteBuffer buffer,
+                           Function<SpaceConfiguration, AsteroidStore> storeFactory) {
+    try {
+      if (buffer.getInt() != MAGIC) {
+        throw new IllegalArgumentException("not a saved space");
+      }
+      byte version = buffer.get();
+      if (version != VERSION) {
+        throw new IllegalArgumentException("unsupported saved space version " + version);
+      }
+      SpaceConfiguration configuration =
+        SpaceConfiguration.DEFAULT
+          .withSize(buffer.getDouble(), buffer.getDouble())
+          .withInitialAsteroidCount(buffer.getInt())
+          .withShapePoolSize(buffer.getInt());
+      long seed = buffer.getLong();
+      RandomGenerator generator = RandomGenerator.readFrom(configuration, buffer);
+      Score score = Score.readFrom(buffer);
+      Spaceship spaceship = Spaceship.readFrom(configuration, buffer);
+      AsteroidStore asteroids = storeFactory.apply(configuration);
+      Space space = new Space(configuration, asteroids, seed, generator, spaceship, score);
+      int projectileCount = buffer.getInt();
+      for (int i = 0; i < projectileCount; i++) {
+        space.addProjectile(Projectile.readFrom(buffer));
+      }
+      Polygon[] shapes = new Polygon[buffer.getInt()];
+      for (int i = 0; i < shapes.length; i++) {
+        List<Vector> vertices = new ArrayList<>();
+        int nbVertices = buffer.getInt();
+        for (int vertex = 0; vertex < nbVertices; vertex++) {
+          vertices.add(new Vector(buffer.getDouble(), buffer.getDouble()));
+        }
+        shapes[i] = new Polygon(vertices);
+      }
+      int asteroidCount = buffer.getInt();
+      for (int i = 0; i < asteroidCount; i++) {
+        asteroids.add(Asteroid.readFrom(configuration, buffer, shapes));
+      }
+      return space;
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("truncated saved space", e);
+    }
+  }
+}
@@ -0,0 +1,289 @@
+package game;
+
+import tools.Polygon;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A copy of the state of a space needed to draw it: the asteroids, the
+ * projectiles and the spaceship, each in its previous and current state so
+ * that it can be drawn in between, and the score. Snapshots are meant to
+ * be reused: capture overwrites the previous content and only allocates
+ * when its arrays must grow.
+ */
+public class SpaceSnapshot {
+
+  /**
+   * The value of System.nanoTime() when the snapshot was captured.
+   */
+  private long captureNanos;
+
+  /**
+   * The duration of the step that led to this state, in seconds.
+   */
+  private double timeStep;
+
+  /**
+   * The dimensions of the space, to interpolate across its borders.
+   */
+  private double width;
+  private double height;
+
+  private int asteroidCount;
+  private Polygon[] asteroidShapes = new Polygon[0];
+  private double[] asteroidScales = new double[0];
+  private double[] asteroidXs = new double[0];
+  private double[] asteroidYs = new double[0];
+  private double[] asteroidAngles = new double[0];
+  private double[] previousAsteroidXs = new double[0];
+  private double[] previousAsteroidYs = new double[0];
+  private double[] previousAsteroidAngles = new double[0];
+
+  private int projectileCount;
+  private double[] projectileXs = new double[0];
+  private double[] projectileYs = new double[0];
+  private double[] previousProjectileXs = new double[0];
+  private double[] previousProjectileYs = new double[0];
+
+  private double spaceshipX;
+  private double spaceshipY;
+  private double spaceshipAngle;
+  private double previousSpaceshipX;
+  private double previousSpaceshipY;
+  private double previousSpaceshipAngle;
+  private boolean isSpaceshipInvulnerable;
+  private double spaceshipInvulnerabilityTime;
+  private boolean isSpaceshipMainEngineOn;
+  private boolean isSpaceshipRecoilEngineOn;
+  private boolean isSpaceshipLeftLateralEngineOn;
+  private boolean isSpaceshipRightLateralEngineOn;
+  private double spaceshipFuelPercentage;
+  private int spaceshipLife;
+
+  private double score;
+  private int scoreMultiplier;
+  private boolean isGameOver;
+
+
+  /**
+   * Copies the current state of a space into this snapshot.
+   *
+   * @param space    the space to copy
+   * @param timeStep the duration of the step that led to the current state
+   */
+  public void capture(Space space, double timeStep) {
+    this.captureNanos = System.nanoTime();
+    this.timeStep = timeStep;
+    this.width = space.getConfiguration().getWidth();
+    this.height = space.getConfiguration().getHeight();
+    captureAsteroids(space.getAsteroids());
+    captureProjectiles(space.getProjectiles());
+    captureSpaceship(space.getSpaceship());
+    score = space.getScore().getValue();
+    scoreMultiplier = space.getScore().getMultiplier();
+    isGameOver = space.isGameOver();
+  }
+
+  private void captureAsteroids(List<Asteroid> asteroids) {
+    asteroidCount = asteroids.size();
+    if (asteroidShapes.length < asteroidCount) {
+      int capacity = Math.max(asteroidCount, 2 * asteroidShapes.length);
+      asteroidShapes = Arrays.copyOf(asteroidShapes, capacity);
+      asteroidScales = new double[capacity];
+      asteroidXs = new double[capacity];
+      asteroidYs = new double[capacity];
+      asteroidAngles = new double[capacity];
+      previousAsteroidXs = new double[capacity];
+      previousAsteroidYs = new double[capacity];
+      previousAsteroidAngles = new double[capacity];
+    }
+    for (int i = 0; i < asteroidCount; i++) {
+      Asteroid asteroid = asteroids.get(i);
+      asteroidShapes[i] = asteroid.getLocalShape();
+      asteroidScales[i] = asteroid.getScale();
+      asteroidXs[i] = asteroid.getPositionX();
+      asteroidYs[i] = asteroid.getPositionY();
+      asteroidAngles[i] = asteroid.getAngle();
+      previousAsteroidXs[i] = asteroid.getPreviousPositionX();
+      previousAsteroidYs[i] = asteroid.getPreviousPositionY();
+      previousAsteroidAngles[i] = asteroid.getPreviousAngle();
+    }
+    Arrays.fill(asteroidShapes, asteroidCount, asteroidShapes.length, null);
+  }
+
+  private void captureProjectiles(List<Projectile> projectiles) {
+    projectileCount = projectiles.size();
+    if (projectileXs.length < projectileCount) {
+      int capacity = Math.max(projectileCount, 2 * projectileXs.length);
+      projectileXs = new double[capacity];
+      projectileYs = new double[capacity];
+      previousProjectileXs = new double[capacity];
+      previousProjectileYs = new double[capacity];
+    }
+    for (int i = 0; i < projectileCount; i++) {
+      Projectile projectile = projectiles.get(i);
+      projectileXs[i] = projectile.getPositionX();
+      projectileYs[i] = projectile.getPositionY();
+      previousProjectileXs[i] = projectile.getPreviousPositionX();
+      previousProjectileYs[i] = projectile.getPreviousPositionY();
+    }
+  }
+
+  private void captureSpaceship(Spaceship spaceship) {
+    spaceshipX = spaceship.getPositionX();
+    spaceshipY = spaceship.getPositionY();
+    spaceshipAngle = spaceship.getDirectionAngle();
+    previousSpaceshipX = spaceship.getPreviousPositionX();
+    previousSpaceshipY = spaceship.getPreviousPositionY();
+    previousSpaceshipAngle = spaceship.getPreviousDirectionAngle();
+    isSpaceshipInvulnerable = spaceship.isInvulnerable();
+    spaceshipInvulnerabilityTime = spaceship.getInvulnerabilityTime();
+    isSpaceshipMainEngineOn = spaceship.isMainEngineOn();
+    isSpaceshipRecoilEngineOn = spaceship.isRecoilEngineOn();
+    isSpaceshipLeftLateralEngineOn = spaceship.isLeftLateralEngineOn();
+    isSpaceshipRightLateralEngineOn = spaceship.isRightLateralEngineOn();
+    spaceshipFuelPercentage = spaceship.getFuelPercentage();
+    spaceshipLife = spaceship.getLife();
+  }
+
+
+  /**
+   * @param nanoTime a value of System.nanoTime()
+   * @return the fraction of a step elapsed between the capture and that
+   * time, between 0 and 1, to draw the snapshot at that time.
+   */
+  public double getInterpolationFactor(long nanoTime) {
+    if (timeStep <= 0) {
+      return 1;
+    }
+    double alpha = (nanoTime - captureNanos) * 1e-9 / timeStep;
+    return Math.max(0, Math.min(1, alpha));
+  }
+
+  /**
+   * @return the number of asteroids.
+   */
+  public int getAsteroidCount() {
+    return asteroidCount;
+  }
+
+  /**
+   * @param index the index of an asteroid
+   * @return the number of vertices of its shape
+   */
+  public int getAsteroidVertexCount(int index) {
+    return asteroidShapes[index].nbVertices();
+  }
+
+  /**
+   * Computes the shape of an asteroid between its previous and current
+   * states.
+   *
+   * @param index the index of the asteroid
+   * @param alpha the fraction of the way from the previous state to the
+   *              current one
+   * @param xs    the buffer receiving the abscissas of the vertices
+   * @param ys    the buffer receiving the ordinates of the vertices
+   */
+  public void interpolateAsteroidShapeInto(int index, double alpha, double[] xs, double[] ys) {
+    double x = Space.interpolate(previousAsteroidXs[index], asteroidXs[index], alpha, width);
+    double y = Space.interpolate(previousAsteroidYs[index], asteroidYs[index], alpha, height);
+    double angle =
+      previousAsteroidAngles[index] + alpha * (asteroidAngles[index] - previousAsteroidAngles[index]);
+    asteroidShapes[index].scaleRotateAndTranslateInto(asteroidScales[index], angle, x, y, xs, ys);
+  }
+
+  /**
+   * @return the number of projectiles.
+   */
+  public int getProjectileCount() {
+    return projectileCount;
+  }
+
+  /**
+   * @param index the index of a projectile
+   * @param alpha the fraction of the way from the previous state to the current one
+   * @return the abscissa of the projectile
+   */
+  public double getProjectileX(int index, double alpha) {
+    return Space.interpolate(previousProjectileXs[index], projectileXs[index], alpha, width);
+  }
+
+  /**
+   * @param index the index of a projectile
+   * @param alpha the fraction of the way from the previous state to the current one
+   * @return the ordinate of the projectile
+   */
+  public double getProjectileY(int index, double alpha) {
+    return Space.interpolate(previousProjectileYs[index], projectileYs[index], alpha, height);
+  }
+
+  /**
+   * @param alpha the fraction of the way from the previous state to the current one
+   * @return the abscissa of the spaceship
+   */
+  public double getSpaceshipX(double alpha) {
+    return Space.interpolate(previousSpaceshipX, spaceshipX, alpha, width);
+  }
+
+  /**
+   * @param alpha the fraction of the way from the previous state to the current one
+   * @return the ordinate of the spaceship
+   */
+  public double getSpaceshipY(double alpha) {
+    return Space.interpolate(previousSpaceshipY, spaceshipY, alpha, height);
+  }
+
+  /**
+   * @param alpha the fraction of the way from the previous state to the current one
+   * @return the angle of the spaceship in degree, where 0 is facing right
+   */
+  public double getSpaceshipDirectionAngle(double alpha) {
+    return Space.interpolate(previousSpaceshipAngle, spaceshipAngle, alpha, 360);
+  }
+
+  public boolean isSpaceshipInvulnerable() {
+    return isSpaceshipInvulnerable;
+  }
+
+  public double getSpaceshipInvulnerabilityTime() {
+    return spaceshipInvulnerabilityTime;
+  }
+
+  public boolean isSpaceshipMainEngineOn() {
+    return isSpaceshipMainEngineOn;
+  }
+
+  public boolean isSpaceshipRecoilEngineOn() {
+    return isSpaceshipRecoilEngineOn;
+  }
+
+  public boolean isSpaceshipLeftLateralEngineOn() {
+    return isSpaceshipLeftLateralEngineOn;
+  }
+
+  public boolean isSpaceshipRightLateralEngineOn() {
+    return isSpaceshipRightLateralEngineOn;
+  }
+
+  public double getSpaceshipFuelPercentage() {
+    return spaceshipFuelPercentage;
+  }
+
+  public int getSpaceshipLife() {
+    return spaceshipLife;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  public int getScoreMultiplier() {
+    return scoreMultiplier;
+  }
+
+  public boolean isGameOver() {
+    return isGameOver;
+  }
+}
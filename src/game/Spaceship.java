@@ -1,7 +1,12 @@
 package game;
 
+import tools.MutableVector;
+import tools.Polygon;
+import tools.Rotation;
+import tools.SeparatingAxis;
 import tools.Vector;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -22,12 +27,12 @@ public class Spaceship {
   /**
    * The position of the center of the spaceship
    */
-  private Vector position;
+  private final MutableVector position;
 
   /**
    * The velocity of the center of the spaceship
    */
-  private Vector velocity;
+  private final MutableVector velocity;
 
   /**
    * Indicates the quantity of fuel in the tank
@@ -38,7 +43,20 @@ public class Spaceship {
    * The forward direction for the spaceship, encoding the rotation
    * from horizontal of its image and the direction of acceleration.
    */
-  private Vector direction = new Vector(1, 0);
+  private final MutableVector direction = new MutableVector(1, 0);
+
+  /**
+   * The rotation from horizontal to direction, applied to the contact
+   * points, updated whenever the direction changes.
+   */
+  private final Rotation rotation = new Rotation();
+
+  /**
+   * The position and direction of the spaceship before the last update,
+   * used to draw it between two simulated states.
+   */
+  private final MutableVector previousPosition;
+  private final MutableVector previousDirection = new MutableVector(1, 0);
 
   /**
    * Controls if the main engine, with forward acceleration, is powered on.
@@ -87,6 +105,12 @@ public class Spaceship {
    */
   private boolean collides = false;
 
+  /**
+   * Whether collisions are detected with the convex hull of the contact
+   * points rather than with the contact points themselves.
+   */
+  private boolean isHullCollisionEnabled = false;
+
   /**
    * The number of life of the spaceship
    */
@@ -101,21 +125,64 @@ public class Spaceship {
    * @return the position of the spaceship
    */
   public Vector getPosition() {
-    return position;
+    return position.toVector();
+  }
+
+  /**
+   * @return the abscissa of the spaceship
+   */
+  public double getPositionX() {
+    return position.getX();
+  }
+
+  /**
+   * @return the ordinate of the spaceship
+   */
+  public double getPositionY() {
+    return position.getY();
   }
 
   /**
    * @return the angle of the spaceship in degree, where 0 is facing right.
    */
   public double getDirectionAngle() {
-    return direction.angle();
+    return Math.toDegrees(Math.atan2(direction.getY(), direction.getX()));
+  }
+
+  /**
+   * @return the abscissa of the spaceship before the last update
+   */
+  public double getPreviousPositionX() {
+    return previousPosition.getX();
+  }
+
+  /**
+   * @return the ordinate of the spaceship before the last update
+   */
+  public double getPreviousPositionY() {
+    return previousPosition.getY();
+  }
+
+  /**
+   * @return the angle of the spaceship in degree before the last update
+   */
+  public double getPreviousDirectionAngle() {
+    return Math.toDegrees(Math.atan2(previousDirection.getY(), previousDirection.getX()));
   }
 
   /**
    * @return the acceleration of the spaceship
    */
   public Vector getAcceleration() {
-    return isMainEngineOn() ? direction.multiply(MAIN_ENGINE_POWER) : (isRecoilEngineOn() ? direction.multiply(RECOIL_ENGINE_POWER) : direction.multiply(0));
+    return direction.toVector().multiply(getEnginePower());
+  }
+
+  /**
+   * @return the norm of the acceleration of the spaceship, negative when
+   * accelerating backward.
+   */
+  private double getEnginePower() {
+    return isMainEngineOn() ? MAIN_ENGINE_POWER : (isRecoilEngineOn() ? RECOIL_ENGINE_POWER : 0);
   }
 
   /**
@@ -165,17 +232,31 @@ public class Spaceship {
   public boolean isRightLateralEngineOn() { return isRightLateralEngineOn; }
 
   /**
-   * Initially the spaceship will be positioned at the center of space.
+   * The space in which the spaceship moves.
    */
+  private final SpaceConfiguration configuration;
+
   public Spaceship() {
+    this(SpaceConfiguration.DEFAULT);
+  }
+
+  /**
+   * Initially the spaceship will be positioned at the center of space.
+   *
+   * @param configuration the space in which the spaceship moves
+   */
+  public Spaceship(SpaceConfiguration configuration) {
+    this.configuration = configuration;
     this.position =
-      new Vector(
-        Space.SPACE_HEIGHT / 2,
-        Space.SPACE_WIDTH / 2
+      new MutableVector(
+        configuration.getWidth() / 2,
+        configuration.getHeight() / 2
       );
-    this.velocity = new Vector(0,0);
+    this.previousPosition = new MutableVector(position.getX(), position.getY());
+    this.velocity = new MutableVector(0,0);
     this.fuel = TANK_CAPACITY;
     this.life = 3;
+    updateContactHull();
   }
 
 
@@ -188,9 +269,11 @@ public class Spaceship {
    * @param dt the time delay to simulate.
    */
   public void update(double dt) {
+      previousPosition.set(position.getX(), position.getY());
+      previousDirection.set(direction.getX(), direction.getY());
       updateVelocity(dt);
-      position = position.add(velocity.multiply(dt));
-      position = Space.toricRemap(position);
+      position.scaleAddInPlace(dt, velocity);
+      configuration.toricRemap(position);
       updateDirection(dt);
       if (getCurrentConsumption() == - 0.2 && (fuel < TANK_CAPACITY && fuel >= 0) || getCurrentConsumption() != -0.2)
         fuel = fuel - getCurrentConsumption()*getAutonomy(dt);
@@ -199,7 +282,7 @@ public class Spaceship {
       if (collides) {
         life--;
       }
-
+      updateContactHull();
   }
 
   /**
@@ -209,9 +292,9 @@ public class Spaceship {
    */
   public void updateVelocity(double dt) {
     if(isMainEngineOn() || isRecoilEngineOn())
-      velocity = velocity.add(getAcceleration().multiply(getAutonomy(dt)));
+      velocity.scaleAddInPlace(getEnginePower() * getAutonomy(dt), direction);
     else
-      velocity = velocity.multiply(0);
+      velocity.set(0, 0);
   }
 
   /**
@@ -221,9 +304,11 @@ public class Spaceship {
    */
   public void updateDirection(double dt) {
     if(isLeftLateralEngineOn())
-      direction = direction.rotate(ANGULAR_VELOCITY * getAutonomy(dt));
+      direction.rotateInPlace(ANGULAR_VELOCITY * getAutonomy(dt));
     if(isRightLateralEngineOn())
-      direction = direction.rotate(-ANGULAR_VELOCITY * getAutonomy(dt));
+      direction.rotateInPlace(-ANGULAR_VELOCITY * getAutonomy(dt));
+    if(isLeftLateralEngineOn() || isRightLateralEngineOn())
+      rotation.setDirection(direction.getX(), direction.getY());
   }
 
   /**
@@ -313,20 +398,103 @@ public class Spaceship {
     return contactPoints;
   }
 
+  /**
+   * The largest distance from the center of the spaceship to one of
+   * its contact points.
+   */
+  private static final double CONTACT_RADIUS =
+    new Polygon(contactPoints).getRadius();
+
+  /**
+   * @return the largest distance from the center of the spaceship to one
+   * of its contact points.
+   */
+  public static double getContactRadius() {
+    return CONTACT_RADIUS;
+  }
+
+  /**
+   * The coordinates of the contact points, relative to the center of the
+   * spaceship facing right.
+   */
+  private static final double[] CONTACT_XS =
+    contactPoints.stream().mapToDouble(Vector::getX).toArray();
+  private static final double[] CONTACT_YS =
+    contactPoints.stream().mapToDouble(Vector::getY).toArray();
+
+  /**
+   * The contact points in space coordinates, for the current position and
+   * direction. They are computed once per update, then shared by the
+   * tests against every asteroid.
+   */
+  private final double[] worldContactXs = new double[CONTACT_XS.length];
+  private final double[] worldContactYs = new double[CONTACT_YS.length];
+
+  /**
+   * The convex hull of the contact points, relative to the center of the
+   * spaceship facing right.
+   */
+  private static final Polygon HULL = SeparatingAxis.convexHull(contactPoints);
+
+  /**
+   * The vertices of the hull in space coordinates, computed along with
+   * the world contact points.
+   */
+  private final double[] worldHullXs = new double[HULL.nbVertices()];
+  private final double[] worldHullYs = new double[HULL.nbVertices()];
+
+  private void updateContactHull() {
+    double x = position.getX();
+    double y = position.getY();
+    for (int i = 0; i < CONTACT_XS.length; i++) {
+      worldContactXs[i] = rotation.rotateX(CONTACT_XS[i], CONTACT_YS[i]) + x;
+      worldContactYs[i] = rotation.rotateY(CONTACT_XS[i], CONTACT_YS[i]) + y;
+    }
+    HULL.scaleRotateAndTranslateInto(1, rotation, x, y, worldHullXs, worldHullYs);
+  }
+
+  /**
+   * @return whether collisions are detected with the convex hull of the
+   * spaceship.
+   */
+  public boolean isHullCollisionEnabled() {
+    return isHullCollisionEnabled;
+  }
+
+  /**
+   * Chooses how collisions with asteroids are detected: either some
+   * contact points on the boundary of the spaceship are tested against
+   * the asteroid, or the convex hull of these points is, which is exact
+   * for the hull and never misses a thin spike of an asteroid between two
+   * contact points.
+   *
+   * @param isHullCollisionEnabled true to test the convex hull, false to
+   *                               test the contact points
+   */
+  public void setHullCollisionEnabled(boolean isHullCollisionEnabled) {
+    this.isHullCollisionEnabled = isHullCollisionEnabled;
+  }
+
   /**
    * @param asteroid the asteroid with which we check the collision.
    * @return whether the spaceship collides the asteroid.
    */
   public boolean collides(Asteroid asteroid) {
-    for(Vector point : getContactPoints()) {
-      if(asteroid.contains(point.rotate(this.getDirectionAngle()).translate(this.getPosition())) && !isInvulnerable()) {
-        collides = true;
-        return true;
-      }
-    }
-    collides = false;
-    return false;
+    collides = !isInvulnerable()
+      && asteroid.isCloserThan(position.getX(), position.getY(), CONTACT_RADIUS)
+      && (isHullCollisionEnabled
+            // most collisions have a vertex of the hull in the asteroid
+            ? asteroid.containsAny(worldHullXs, worldHullYs, worldHullXs.length)
+                || asteroid.intersectsConvex(worldHullXs, worldHullYs, worldHullXs.length)
+            : asteroid.containsAny(worldContactXs, worldContactYs, worldContactXs.length));
+    return collides;
+  }
 
+  /**
+   * Forgets the last collision, before looking for new ones.
+   */
+  void clearCollision() {
+    collides = false;
   }
 
   /**
@@ -337,8 +505,84 @@ public class Spaceship {
   }
 
 
+  /**
+   * The number of bytes written by writeTo.
+   */
+  static final int BYTES = 12 * 8 + 1 + 4;
+
+  /**
+   * @param buffer where to write the state of the spaceship
+   */
+  void writeTo(ByteBuffer buffer) {
+    buffer.putDouble(position.getX());
+    buffer.putDouble(position.getY());
+    buffer.putDouble(previousPosition.getX());
+    buffer.putDouble(previousPosition.getY());
+    buffer.putDouble(velocity.getX());
+    buffer.putDouble(velocity.getY());
+    buffer.putDouble(direction.getX());
+    buffer.putDouble(direction.getY());
+    buffer.putDouble(previousDirection.getX());
+    buffer.putDouble(previousDirection.getY());
+    buffer.putDouble(fuel);
+    buffer.putDouble(invulnerabilityTime);
+    buffer.put((byte) (
+      (isMainEngineOn ? 1 : 0)
+        | (isRecoilEngineOn ? 2 : 0)
+        | (isLeftLateralEngineOn ? 4 : 0)
+        | (isRightLateralEngineOn ? 8 : 0)
+        | (collides ? 16 : 0)
+        | (isHullCollisionEnabled ? 32 : 0)));
+    buffer.putInt(life);
+  }
+
+  /**
+   * @param configuration the space in which the spaceship moves
+   * @param buffer        where to read a spaceship written by writeTo
+   * @return the spaceship read
+   */
+  static Spaceship readFrom(SpaceConfiguration configuration, ByteBuffer buffer) {
+    Spaceship spaceship = new Spaceship(configuration);
+    spaceship.position.set(buffer.getDouble(), buffer.getDouble());
+    spaceship.previousPosition.set(buffer.getDouble(), buffer.getDouble());
+    spaceship.velocity.set(buffer.getDouble(), buffer.getDouble());
+    spaceship.direction.set(buffer.getDouble(), buffer.getDouble());
+    spaceship.previousDirection.set(buffer.getDouble(), buffer.getDouble());
+    spaceship.rotation.setDirection(spaceship.direction.getX(), spaceship.direction.getY());
+    spaceship.updateContactHull();
+    spaceship.fuel = buffer.getDouble();
+    spaceship.invulnerabilityTime = buffer.getDouble();
+    byte flags = buffer.get();
+    spaceship.isMainEngineOn = (flags & 1) != 0;
+    spaceship.isRecoilEngineOn = (flags & 2) != 0;
+    spaceship.isLeftLateralEngineOn = (flags & 4) != 0;
+    spaceship.isRightLateralEngineOn = (flags & 8) != 0;
+    spaceship.collides = (flags & 16) != 0;
+    spaceship.isHullCollisionEnabled = (flags & 32) != 0;
+    spaceship.life = buffer.getInt();
+    return spaceship;
+  }
+
+
   public Projectile fire() {
-    return new Projectile(this.position.add(this.direction.multiply(30)), this.velocity.add(this.direction.multiply(100)));
+    return fire(null);
+  }
+
+  /**
+   * Same as fire, reusing a projectile removed from space if there is one.
+   *
+   * @param reused a projectile to reset, or null
+   * @return the fired projectile, reused if not null
+   */
+  Projectile fire(Projectile reused) {
+    double x = position.getX() + 30 * direction.getX();
+    double y = position.getY() + 30 * direction.getY();
+    double vx = velocity.getX() + 100 * direction.getX();
+    double vy = velocity.getY() + 100 * direction.getY();
+    if (reused == null) {
+      return new Projectile(new Vector(x, y), new Vector(vx, vy));
+    }
+    return reused.reset(x, y, vx, vy);
   }
 
 }
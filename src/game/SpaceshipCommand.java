@@ -0,0 +1,56 @@
+package game;
+
+/**
+ * The commands a player can give to the spaceship of a space.
+ */
+public enum SpaceshipCommand {
+  START_MAIN_ENGINE,
+  STOP_MAIN_ENGINE,
+  START_RECOIL_ENGINE,
+  STOP_RECOIL_ENGINE,
+  START_LEFT_LATERAL_ENGINE,
+  STOP_LEFT_LATERAL_ENGINE,
+  START_RIGHT_LATERAL_ENGINE,
+  STOP_RIGHT_LATERAL_ENGINE,
+  FIRE_GUN;
+
+  /**
+   * Executes the command on the spaceship of a space, recording it if
+   * the space is recorded.
+   *
+   * @param space the space containing the spaceship
+   */
+  public void applyTo(Space space) {
+    space.recordCommand(this);
+    Spaceship spaceship = space.getSpaceship();
+    switch (this) {
+      case START_MAIN_ENGINE:
+        spaceship.startMainEngine();
+        break;
+      case STOP_MAIN_ENGINE:
+        spaceship.stopMainEngine();
+        break;
+      case START_RECOIL_ENGINE:
+        spaceship.startRecoilEngine();
+        break;
+      case STOP_RECOIL_ENGINE:
+        spaceship.stopRecoilEngine();
+        break;
+      case START_LEFT_LATERAL_ENGINE:
+        spaceship.startLeftLateralEngine();
+        break;
+      case STOP_LEFT_LATERAL_ENGINE:
+        spaceship.stopLeftLateralEngine();
+        break;
+      case START_RIGHT_LATERAL_ENGINE:
+        spaceship.startRightLateralEngine();
+        break;
+      case STOP_RIGHT_LATERAL_ENGINE:
+        spaceship.stopRightLateralEngine();
+        break;
+      case FIRE_GUN:
+        space.fireSpaceshipGun();
+        break;
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package headless;
+
+import game.ArrayAsteroidStore;
+import game.AsteroidStore;
+import game.ListAsteroidStore;
+import game.Space;
+import game.SpaceConfiguration;
+import game.SpaceSerializer;
+import game.SpaceshipCommand;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Drives a space without any graphical interface, with a fixed time step,
+ * measuring how fast the simulation runs. It is meant to benchmark and
+ * soak-test the game on machines without a display. When the game is
+ * over, the space is replaced by a new one and the run goes on.
+ */
+public class HeadlessRunner {
+
+  private final Supplier<Space> spaceFactory;
+  private final InputSource input;
+  private final double dt;
+  private Space space;
+  private int restarts = 0;
+
+  /**
+   * @param spaceFactory creates the space to simulate, and new ones after
+   *                     each game over
+   * @param input        the commands given to the spaceship
+   * @param dt           the time step of each tick, in seconds
+   */
+  public HeadlessRunner(Supplier<Space> spaceFactory, InputSource input, double dt) {
+    this.spaceFactory = spaceFactory;
+    this.input = input;
+    this.dt = dt;
+    this.space = spaceFactory.get();
+  }
+
+  /**
+   * @return the space currently simulated.
+   */
+  public Space getSpace() {
+    return space;
+  }
+
+  /**
+   * Simulates a number of ticks, after some unmeasured ticks letting the
+   * virtual machine warm up.
+   *
+   * @param tickCount   the number of measured ticks
+   * @param warmupTicks the number of ticks simulated before measuring
+   * @return the measurements of the run
+   */
+  public RunReport runTicks(int tickCount, int warmupTicks) {
+    long tick = 0;
+    for (int i = 0; i < warmupTicks; i++) {
+      tick(tick++);
+    }
+    restarts = 0;
+    long[] tickNanos = new long[tickCount];
+    long allocatedBefore = allocatedBytes();
+    long runStart = System.nanoTime();
+    for (int i = 0; i < tickCount; i++) {
+      long tickStart = System.nanoTime();
+      tick(tick++);
+      tickNanos[i] = System.nanoTime() - tickStart;
+    }
+    long wallTime = System.nanoTime() - runStart;
+    long allocatedAfter = allocatedBytes();
+    long allocated =
+      (allocatedBefore < 0 || allocatedAfter < 0) ? -1 : allocatedAfter - allocatedBefore;
+    // the workers of a parallel space allocate too, but are not counted
+    boolean isAllocationPartial = space.getParallelism() > 1;
+    return new RunReport(dt, wallTime, tickNanos, allocated, isAllocationPartial, restarts);
+  }
+
+  /**
+   * Same as runTicks, for a given amount of simulated time.
+   *
+   * @param seconds       the simulated time to measure
+   * @param warmupSeconds the simulated time before measuring
+   * @return the measurements of the run
+   */
+  public RunReport runSeconds(double seconds, double warmupSeconds) {
+    return runTicks((int) Math.ceil(seconds / dt), (int) Math.ceil(warmupSeconds / dt));
+  }
+
+  private void tick(long tick) {
+    for (SpaceshipCommand command : input.commandsAt(tick)) {
+      command.applyTo(space);
+    }
+    space.update(dt);
+    if (space.isGameOver()) {
+      space.shutdown();
+      space = spaceFactory.get();
+      restarts++;
+    }
+  }
+
+  /**
+   * Only the current thread is counted: the worker threads of a parallel
+   * space come and go with its pool, and what the retired ones allocated
+   * could no longer be read at the end of a run.
+   *
+   * @return the number of bytes allocated so far by the current thread,
+   * or -1 if the virtual machine cannot tell.
+   */
+  static long allocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+    if (!sunBean.isThreadAllocatedMemorySupported() || !sunBean.isThreadAllocatedMemoryEnabled()) {
+      return -1;
+    }
+    return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+
+  private static final String USAGE =
+    "usage: HeadlessRunner [options]\n"
+      + "  --ticks N         number of measured ticks (default 10000)\n"
+      + "  --seconds S       simulated seconds to measure, instead of --ticks\n"
+      + "  --warmup N        number of unmeasured ticks first (default 1000)\n"
+      + "  --dt D            time step in seconds (default 1/60)\n"
+      + "  --input I         none, random, or the path of a script (default random)\n"
+      + "  --seed N          seed of the random input and of the spaces (default 0)\n"
+      + "  --store S         asteroid store, list or arrays (default list)\n"
+      + "  --brute-force     disable the broad phase for collisions\n"
+      + "  --hull            detect collisions with the convex hull of the spaceship\n"
+      + "  --asteroids N     initial number of asteroids, in a space grown to keep\n"
+      + "                    the default density (default 10)\n"
+      + "  --size W H        dimensions of space, after --asteroids (default 800 800)\n"
+      + "  --parallelism N   threads updating large fields (default 1)\n"
+      + "  --load F          start from a space saved in a file, and again after\n"
+      + "                    each game over, instead of generating it\n"
+      + "  --save F          save the space at the end of the run in a file\n";
+
+  public static void main(String[] args) throws IOException {
+    int ticks = 10000;
+    double seconds = -1;
+    int warmup = 1000;
+    double dt = 1. / 60;
+    String inputName = "random";
+    long seed = 0;
+    String storeName = "list";
+    boolean isBroadPhaseEnabled = true;
+    boolean isHullCollisionEnabled = false;
+    SpaceConfiguration configuration = SpaceConfiguration.DEFAULT;
+    int parallelism = 1;
+    String loadName = null;
+    String saveName = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        switch (args[i]) {
+          case "--ticks": ticks = Integer.parseInt(args[++i]); break;
+          case "--seconds": seconds = Double.parseDouble(args[++i]); break;
+          case "--warmup": warmup = Integer.parseInt(args[++i]); break;
+          case "--dt": dt = Double.parseDouble(args[++i]); break;
+          case "--input": inputName = args[++i]; break;
+          case "--seed": seed = Long.parseLong(args[++i]); break;
+          case "--store": storeName = args[++i]; break;
+          case "--brute-force": isBroadPhaseEnabled = false; break;
+          case "--hull": isHullCollisionEnabled = true; break;
+          case "--asteroids":
+            configuration = configuration.withSameDensity(Integer.parseInt(args[++i]));
+            break;
+          case "--size":
+            configuration = configuration.withSize(
+              Double.parseDouble(args[++i]),
+              Double.parseDouble(args[++i]));
+            break;
+          case "--parallelism": parallelism = Integer.parseInt(args[++i]); break;
+          case "--load": loadName = args[++i]; break;
+          case "--save": saveName = args[++i]; break;
+          default: throw new IllegalArgumentException("unknown option " + args[i]);
+        }
+      }
+    } catch (RuntimeException e) {
+      System.err.println(e.getMessage());
+      System.err.print(USAGE);
+      System.exit(1);
+      return;
+    }
+
+    InputSource input =
+      inputName.equals("none") ? InputSource.NONE :
+      inputName.equals("random") ? new RandomInput(seed, 0.02) :
+      ScriptedInput.load(Path.of(inputName));
+    boolean useArrays = storeName.equals("arrays");
+    boolean broadPhase = isBroadPhaseEnabled;
+    boolean hullCollision = isHullCollisionEnabled;
+    SpaceConfiguration spaceConfiguration = configuration;
+    int threads = parallelism;
+    SplittableRandom seeds = new SplittableRandom(seed);
+    byte[] saved = (loadName == null) ? null : Files.readAllBytes(Path.of(loadName));
+    Function<SpaceConfiguration, AsteroidStore> storeFactory = storeConfiguration ->
+      useArrays ? new ArrayAsteroidStore(storeConfiguration) : new ListAsteroidStore();
+    Supplier<Space> spaceFactory = () -> {
+      Space space = (saved != null) ?
+        SpaceSerializer.load(ByteBuffer.wrap(saved), storeFactory) :
+        new Space(spaceConfiguration, storeFactory.apply(spaceConfiguration), seeds.nextLong());
+      space.setBroadPhaseEnabled(broadPhase);
+      space.getSpaceship().setHullCollisionEnabled(hullCollision);
+      space.setParallelism(threads);
+      return space;
+    };
+
+    HeadlessRunner runner = new HeadlessRunner(spaceFactory, input, dt);
+    RunReport report = (seconds >= 0) ?
+      runner.runSeconds(seconds, warmup * dt) :
+      runner.runTicks(ticks, warmup);
+    System.out.print(report);
+    System.out.printf("projectile pool:  %s%n", runner.getSpace().getProjectilePool());
+    System.out.printf("asteroid pool:    %s%n", runner.getSpace().getAsteroidPool());
+    if (saveName != null) {
+      Files.write(Path.of(saveName), SpaceSerializer.save(runner.getSpace()).array());
+    }
+    runner.getSpace().shutdown();
+  }
+}
@@ -0,0 +1,24 @@
+package headless;
+
+import game.SpaceshipCommand;
+
+import java.util.List;
+
+/**
+ * Provides the commands given to the spaceship during a headless run,
+ * in place of a player.
+ */
+public interface InputSource {
+
+  /**
+   * @param tick the index of the tick about to be simulated
+   * @return the commands to give to the spaceship before that tick
+   */
+  List<SpaceshipCommand> commandsAt(long tick);
+
+  /**
+   * An input source never giving any command.
+   */
+  InputSource NONE = tick -> List.of();
+
+}
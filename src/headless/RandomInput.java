@@ -0,0 +1,40 @@
+package headless;
+
+import game.SpaceshipCommand;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plays randomly: at each tick, every command has the same small
+ * probability of being given to the spaceship.
+ */
+public class RandomInput implements InputSource {
+
+  private static final SpaceshipCommand[] COMMANDS = SpaceshipCommand.values();
+
+  private final Random random;
+  private final double probability;
+  private final List<SpaceshipCommand> commands = new ArrayList<>();
+
+  /**
+   * @param seed        the seed of the random choices
+   * @param probability the probability of each command at each tick
+   */
+  public RandomInput(long seed, double probability) {
+    this.random = new Random(seed);
+    this.probability = probability;
+  }
+
+  @Override
+  public List<SpaceshipCommand> commandsAt(long tick) {
+    commands.clear();
+    for (SpaceshipCommand command : COMMANDS) {
+      if (random.nextDouble() < probability) {
+        commands.add(command);
+      }
+    }
+    return commands;
+  }
+}
@@ -0,0 +1,170 @@
+package headless;
+
+import game.ArrayAsteroidStore;
+import game.InputRecorder;
+import game.ListAsteroidStore;
+import game.Space;
+import game.SpaceConfiguration;
+import game.SpaceshipCommand;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Replays a log written by an {@link InputRecorder} as fast as possible,
+ * without any graphical interface, measuring each tick like the headless
+ * runner does. The whole log is read in memory first, so that reading it
+ * does not disturb the measures. If the log holds state hashes, the state
+ * of the space is checked after each tick, and the first tick whose state
+ * differs from the recorded one is reported.
+ */
+public class Replayer {
+
+  private static final SpaceshipCommand[] COMMANDS = SpaceshipCommand.values();
+
+  private final ByteBuffer log;
+  private final Space space;
+  private long divergentTick = -1;
+
+  /**
+   * @param log        the content of the log, positioned at its start
+   * @param useArrays  whether to store the asteroids in arrays rather
+   *                   than in a list
+   * @throws IllegalArgumentException if the log is not a recording
+   */
+  public Replayer(ByteBuffer log, boolean useArrays) {
+    this.log = log;
+    if (log.remaining() < 4 + 1 + 8 + 8 + 8 + 4 + 4 || log.getInt() != InputRecorder.MAGIC) {
+      throw new IllegalArgumentException("not a recording");
+    }
+    byte version = log.get();
+    if (version != InputRecorder.VERSION) {
+      throw new IllegalArgumentException("unsupported recording version " + version);
+    }
+    long seed = log.getLong();
+    double width = log.getDouble();
+    double height = log.getDouble();
+    int initialAsteroidCount = log.getInt();
+    int shapePoolSize = log.getInt();
+    SpaceConfiguration configuration =
+      SpaceConfiguration.DEFAULT
+        .withSize(width, height)
+        .withInitialAsteroidCount(initialAsteroidCount)
+        .withShapePoolSize(shapePoolSize);
+    this.space = new Space(
+      configuration,
+      useArrays ? new ArrayAsteroidStore(configuration) : new ListAsteroidStore(),
+      seed);
+  }
+
+  /**
+   * @param path the path of a log
+   * @param useArrays whether to store the asteroids in arrays
+   * @return a replayer of the log
+   * @throws IOException if the log cannot be read
+   */
+  public static Replayer load(Path path, boolean useArrays) throws IOException {
+    return new Replayer(ByteBuffer.wrap(Files.readAllBytes(path)), useArrays);
+  }
+
+  /**
+   * @return the space replayed.
+   */
+  public Space getSpace() {
+    return space;
+  }
+
+  /**
+   * @return the index of the first tick after which the state of the
+   * space differed from the recorded one, or -1 if none did.
+   */
+  public long getDivergentTick() {
+    return divergentTick;
+  }
+
+  /**
+   * Replays the whole log.
+   *
+   * @return the measurements of the replay, one tick per update
+   * @throws IllegalArgumentException if the log is corrupted
+   */
+  public RunReport run() {
+    long[] tickNanos = new long[1024];
+    int ticks = 0;
+    double dt = Double.NaN;
+    double simulatedTime = 0;
+    long allocatedBefore = HeadlessRunner.allocatedBytes();
+    long runStart = System.nanoTime();
+    while (log.hasRemaining()) {
+      byte tag = log.get();
+      if (tag >= 0 && tag < COMMANDS.length) {
+        COMMANDS[tag].applyTo(space);
+      } else if (tag == InputRecorder.TAG_UPDATE || tag == InputRecorder.TAG_UPDATE_WITH_DELAY) {
+        if (tag == InputRecorder.TAG_UPDATE_WITH_DELAY) {
+          dt = log.getDouble();
+        }
+        long tickStart = System.nanoTime();
+        space.update(dt);
+        if (ticks == tickNanos.length) {
+          tickNanos = Arrays.copyOf(tickNanos, 2 * ticks);
+        }
+        tickNanos[ticks++] = System.nanoTime() - tickStart;
+        simulatedTime += dt;
+      } else if (tag == InputRecorder.TAG_HASH) {
+        long hash = log.getLong();
+        if (divergentTick < 0 && hash != space.stateHash()) {
+          divergentTick = ticks - 1;
+        }
+      } else {
+        throw new IllegalArgumentException("corrupted recording, unknown tag " + tag);
+      }
+    }
+    long wallTime = System.nanoTime() - runStart;
+    long allocatedAfter = HeadlessRunner.allocatedBytes();
+    long allocated =
+      (allocatedBefore < 0 || allocatedAfter < 0) ? -1 : allocatedAfter - allocatedBefore;
+    double meanDt = (ticks == 0) ? 0 : simulatedTime / ticks;
+    return new RunReport(meanDt, wallTime, Arrays.copyOf(tickNanos, ticks), allocated, false, 0);
+  }
+
+
+  private static final String USAGE =
+    "usage: Replayer [options] LOG\n"
+      + "  --store S         asteroid store, list or arrays (default list)\n";
+
+  public static void main(String[] args) throws IOException {
+    String storeName = "list";
+    String logName = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        switch (args[i]) {
+          case "--store": storeName = args[++i]; break;
+          default:
+            if (args[i].startsWith("--") || logName != null) {
+              throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+            logName = args[i];
+        }
+      }
+      if (logName == null) {
+        throw new IllegalArgumentException("missing log");
+      }
+    } catch (RuntimeException e) {
+      System.err.println(e.getMessage());
+      System.err.print(USAGE);
+      System.exit(1);
+      return;
+    }
+
+    Replayer replayer = load(Path.of(logName), storeName.equals("arrays"));
+    RunReport report = replayer.run();
+    System.out.print(report);
+    if (replayer.getDivergentTick() >= 0) {
+      System.out.printf("divergence:       after tick %d%n", replayer.getDivergentTick());
+      System.exit(2);
+    }
+  }
+}
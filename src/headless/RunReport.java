@@ -0,0 +1,127 @@
+package headless;
+
+import java.util.Arrays;
+
+/**
+ * The measurements made during a headless run.
+ */
+public class RunReport {
+
+  private final long ticks;
+  private final double dt;
+  private final long wallTimeNanos;
+  private final long[] sortedTickNanos;
+  private final long allocatedBytes;
+  private final boolean isAllocationPartial;
+  private final int restarts;
+
+  /**
+   * @param dt                  the simulated delay of each tick, in seconds
+   * @param wallTimeNanos       the real time spent running the ticks
+   * @param tickNanos           the real time spent in each tick
+   * @param allocatedBytes      the number of bytes allocated during the
+   *                            run, negative if unknown
+   * @param isAllocationPartial whether other threads than the calling one
+   *                            took part in the ticks, their allocations
+   *                            not being counted
+   * @param restarts            how many times the game was over and
+   *                            restarted
+   */
+  public RunReport(double dt, long wallTimeNanos, long[] tickNanos,
+                   long allocatedBytes, boolean isAllocationPartial, int restarts) {
+    this.ticks = tickNanos.length;
+    this.dt = dt;
+    this.wallTimeNanos = wallTimeNanos;
+    this.sortedTickNanos = tickNanos.clone();
+    Arrays.sort(sortedTickNanos);
+    this.allocatedBytes = allocatedBytes;
+    this.isAllocationPartial = isAllocationPartial;
+    this.restarts = restarts;
+  }
+
+  /**
+   * @return the number of measured ticks.
+   */
+  public long getTicks() {
+    return ticks;
+  }
+
+  /**
+   * @return the number of ticks simulated per second of real time.
+   */
+  public double getTicksPerSecond() {
+    return ticks * 1e9 / wallTimeNanos;
+  }
+
+  /**
+   * @param percentile a percentile, between 0 and 100
+   * @return the duration of a tick for that percentile, in nanoseconds
+   */
+  public long getTickNanosPercentile(double percentile) {
+    if (sortedTickNanos.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile / 100 * sortedTickNanos.length) - 1;
+    return sortedTickNanos[Math.max(0, Math.min(index, sortedTickNanos.length - 1))];
+  }
+
+  /**
+   * @return the number of bytes allocated during the run, negative if
+   * the virtual machine cannot measure it.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * @return whether only the allocations of the calling thread were
+   * counted, while other threads also took part in the ticks.
+   */
+  public boolean isAllocationPartial() {
+    return isAllocationPartial;
+  }
+
+  /**
+   * @return the mean number of bytes allocated per tick, negative if unknown.
+   */
+  public double getAllocatedBytesPerTick() {
+    return allocatedBytes < 0 ? -1 : (double) allocatedBytes / ticks;
+  }
+
+  /**
+   * @return the number of bytes allocated per second of real time,
+   * negative if unknown.
+   */
+  public double getAllocationRate() {
+    return allocatedBytes < 0 ? -1 : allocatedBytes * 1e9 / wallTimeNanos;
+  }
+
+  /**
+   * @return how many times the game was over and restarted.
+   */
+  public int getRestarts() {
+    return restarts;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    builder.append(String.format("ticks:            %d (%.1f s simulated)%n", ticks, ticks * dt));
+    builder.append(String.format("wall time:        %.3f s%n", wallTimeNanos * 1e-9));
+    builder.append(String.format("ticks/second:     %.1f%n", getTicksPerSecond()));
+    builder.append(String.format("tick p50:         %.1f us%n", getTickNanosPercentile(50) * 1e-3));
+    builder.append(String.format("tick p90:         %.1f us%n", getTickNanosPercentile(90) * 1e-3));
+    builder.append(String.format("tick p99:         %.1f us%n", getTickNanosPercentile(99) * 1e-3));
+    builder.append(String.format("tick p99.9:       %.1f us%n", getTickNanosPercentile(99.9) * 1e-3));
+    builder.append(String.format("tick max:         %.1f us%n", getTickNanosPercentile(100) * 1e-3));
+    if (allocatedBytes < 0) {
+      builder.append(String.format("allocation:       unavailable%n"));
+    } else {
+      builder.append(String.format("allocation:       %.1f bytes/tick, %.2f MB/s%s%n",
+        getAllocatedBytesPerTick(), getAllocationRate() / 1e6,
+        isAllocationPartial ? ", calling thread only" : ""));
+    }
+    builder.append(String.format("restarts:         %d%n", restarts));
+    return builder.toString();
+  }
+}
@@ -0,0 +1,81 @@
+package headless;
+
+import game.SpaceshipCommand;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Gives the commands listed in a script. Each line of the script holds a
+ * tick index and the name of a command, for instance
+ * <pre>
+ *   0 START_MAIN_ENGINE
+ *   60 FIRE_GUN
+ *   120 STOP_MAIN_ENGINE
+ * </pre>
+ * Empty lines and lines starting with # are ignored. Ticks must be
+ * queried in increasing order.
+ */
+public class ScriptedInput implements InputSource {
+
+  private static class Entry {
+    final long tick;
+    final SpaceshipCommand command;
+
+    Entry(long tick, SpaceshipCommand command) {
+      this.tick = tick;
+      this.command = command;
+    }
+  }
+
+  private final List<Entry> entries = new ArrayList<>();
+  private final List<SpaceshipCommand> commands = new ArrayList<>();
+
+  /**
+   * The index of the first entry not given yet.
+   */
+  private int next = 0;
+
+  /**
+   * @param lines the lines of the script
+   */
+  public ScriptedInput(List<String> lines) {
+    for (String line : lines) {
+      String trimmed = line.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+      String[] words = trimmed.split("\\s+");
+      if (words.length != 2) {
+        throw new IllegalArgumentException("invalid script line: " + line);
+      }
+      entries.add(new Entry(Long.parseLong(words[0]), SpaceshipCommand.valueOf(words[1])));
+    }
+    entries.sort(Comparator.comparingLong(entry -> entry.tick));
+  }
+
+  /**
+   * @param path the path of a script file
+   * @return the input source described by the file
+   * @throws IOException if the file cannot be read
+   */
+  public static ScriptedInput load(Path path) throws IOException {
+    return new ScriptedInput(Files.readAllLines(path));
+  }
+
+  @Override
+  public List<SpaceshipCommand> commandsAt(long tick) {
+    commands.clear();
+    while (next < entries.size() && entries.get(next).tick <= tick) {
+      if (entries.get(next).tick == tick) {
+        commands.add(entries.get(next).command);
+      }
+      next++;
+    }
+    return commands;
+  }
+}
@@ -14,4 +14,29 @@ public abstract class AbstractInspection implements Inspection {
   @Override
   public abstract void update();
 
+  /**
+   * Sets the text of the item, if it differs from the displayed one,
+   * sparing the tree view a useless layout.
+   *
+   * @param text the text to display
+   */
+  protected void setText(String text) {
+    if (!text.equals(item.getValue())) {
+      item.setValue(text);
+    }
+  }
+
+  /**
+   * Makes the item update its content when it gets expanded, for
+   * inspections skipping their children while collapsed.
+   */
+  protected void updateOnExpansion() {
+    item.expandedProperty().addListener(
+      (observable, wasExpanded, isExpanded) -> {
+        if (isExpanded) {
+          update();
+        }
+      });
+  }
+
 }
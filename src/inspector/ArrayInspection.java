@@ -9,6 +9,7 @@ public class ArrayInspection<T,S> extends AbstractInspection {
 
   private final Supplier<S[]> getter;
   private final String name;
+  private final PagedChildren children;
   private S[] array;
   private Inspection[] inspections;
 
@@ -16,47 +17,51 @@ public class ArrayInspection<T,S> extends AbstractInspection {
     this.getter = getter;
     this.name = name;
     item = new TreeItem<>(name);
+    children = new PagedChildren(item, this::update);
+    updateOnExpansion();
     initialize();
   }
 
   private void initialize() {
     array = getter.get();
-    getItem().getChildren().clear();
     if (array == null) {
       getItem().setValue(name + ": null");
+      children.resize(0);
       return;
     }
+    getItem().setValue(name + " (" + array.length + ")");
     inspections = new Inspection[array.length];
-    for (int i = 0; i < array.length; i++) {
-      createValue(i);
-    }
+    children.resize(array.length);
   }
 
-  private void createValue(int index) {
+  private Inspection createValue(int index) {
     S value = array[index];
-    Class<?> subClass = value.getClass();
     String indexName = Integer.toString(index);
-    Inspection inspection =
-      Inspections.buildInspector(
-        subClass,
-        () -> array[index],
-        indexName
-      );
-    inspections[index] = inspection;
-    inspection.update();
-    item.getChildren().add(inspection.getItem());
+    if (value == null) {
+      return new ConstantInspection(indexName, "null");
+    }
+    Class<?> subClass = value.getClass();
+    return Inspections.buildInspector(
+      subClass,
+      () -> array[index],
+      indexName
+    );
   }
 
 
+  /**
+   * Updates the elements visible in the expanded pages, the inspections
+   * of the other elements being created when they are first shown.
+   */
   @Override
   public void update() {
     S[] currentArray = getter.get();
     if (currentArray != array) {
       initialize();
-      return;
     }
-    for (Inspection inspection : inspections) {
-      inspection.update();
+    if (array == null) {
+      return;
     }
+    children.updateIndexed(inspections, this::createValue);
   }
 }
@@ -3,15 +3,34 @@ package inspector;
 import javafx.scene.control.TreeItem;
 
 import java.util.*;
-import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class CollectionInspection<T> extends AbstractInspection {
 
   private final Supplier<Collection<T>> getter;
   private Collection<T> values;
-  private final Map<T, Inspection> inspections = new HashMap<>();
+  private final Map<T, Entry> inspections = new IdentityHashMap<>();
   private final String name;
+  private final PagedChildren children;
+  private final List<TreeItem<String>> pageItems = new ArrayList<>();
+
+  /**
+   * Incremented on each update, to find the elements that were not seen
+   * during the last one.
+   */
+  private int generation = 0;
+
+  /**
+   * The inspection of an element, with the last update it was seen in.
+   */
+  private static class Entry {
+    final Inspection inspection;
+    int lastSeen;
+
+    Entry(Inspection inspection) {
+      this.inspection = inspection;
+    }
+  }
 
 
 
@@ -19,7 +38,9 @@ public class CollectionInspection<T> extends AbstractInspection {
     this.getter = getter;
     this.name = name;
     this.item = new TreeItem<>("");
+    this.children = new PagedChildren(item, this::update);
     item.setExpanded(false);
+    updateOnExpansion();
     update();
   }
 
@@ -29,7 +50,6 @@ public class CollectionInspection<T> extends AbstractInspection {
       return;
     }
     this.values = collection;
-    this.item.getChildren().clear();
     this.inspections.clear();
   }
 
@@ -38,57 +58,73 @@ public class CollectionInspection<T> extends AbstractInspection {
   }
 
 
+  /**
+   * Updates the size of the collection and the elements visible in the
+   * expanded pages. Elements are identified by identity, so an element
+   * keeps its inspection as long as it stays visible, even if it moves
+   * or its hash code changes. The inspections of the elements no longer
+   * visible are dropped.
+   */
   @Override
   public void update() {
     initCollection();
-    item.setValue(getDescription(values));
-    Set<T> seen = new HashSet<>();
-    for (T value : values) {
-      updateValue(value);
-      seen.add(value);
+    setText(getDescription(values));
+    children.resize(values.size());
+    if (!item.isExpanded()) {
+      return;
     }
-    removeUnseen(seen);
-
-  }
-
-  private void removeUnseen(Set<T> seen) {
-    List<Map.Entry<T, Inspection>> entriesToRemove = new ArrayList<>();
-    for (Map.Entry<T, Inspection> entry : inspections.entrySet()) {
-      if (!seen.contains(entry.getKey())) {
-        entriesToRemove.add(entry);
+    generation++;
+    int index = 0;
+    for (T value : values) {
+      int page = children.getPage(index);
+      index++;
+      if (!children.isVisible(page)) {
+        continue;
+      }
+      pageItems.add(updateValue(value).inspection.getItem());
+      if (index == children.getEnd(page)) {
+        children.setPage(page, pageItems);
+        pageItems.clear();
       }
     }
-    entriesToRemove.forEach(this::remove);
-  }
+    pageItems.clear();
+    removeUnseen();
 
+  }
 
-  private void remove(Map.Entry<T, Inspection> entry) {
-    inspections.remove(entry.getKey());
-    TreeItem<String> item = entry.getValue().getItem();
-    item.getParent().getChildren().remove(item);
+  private void removeUnseen() {
+    inspections.values().removeIf(entry -> entry.lastSeen != generation);
   }
 
 
-  private void updateValue(T value) {
-    if (inspections.containsKey(value)) {
-      inspections.get(value).update();
-      return;
+  private Entry updateValue(T value) {
+    Entry entry = inspections.get(value);
+    if (entry == null) {
+      entry = createValue(value);
+    } else {
+      entry.inspection.update();
     }
-    createValue(value);
+    entry.lastSeen = generation;
+    return entry;
   }
 
-  private void createValue(T value) {
-    Class<?> subClass = value.getClass();
-    Inspection inspection =
-      Inspections.buildInspector(
-        subClass,
-        () -> value,
-        subClass.getName()
-        );
-    inspections.put(value, inspection);
+  private Entry createValue(T value) {
+    Inspection inspection;
+    if (value == null) {
+      inspection = new ConstantInspection("element", "null");
+    } else {
+      Class<?> subClass = value.getClass();
+      inspection =
+        Inspections.buildInspector(
+          subClass,
+          () -> value,
+          subClass.getName()
+          );
+    }
+    Entry entry = new Entry(inspection);
+    inspections.put(value, entry);
     inspection.update();
-    item.getChildren().add(inspection.getItem());
+    return entry;
   }
 
 }
-
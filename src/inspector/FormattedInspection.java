@@ -18,6 +18,6 @@ public class FormattedInspection<T> extends AbstractInspection {
 
   @Override
   public void update() {
-    item.setValue(name + ": " + supplier.get());
+    setText(name + ": " + supplier.get());
   }
 }
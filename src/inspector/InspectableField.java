@@ -0,0 +1,93 @@
+package inspector;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * A field shown by the inspector, with a method handle reading it. The
+ * fields of a class are looked up, filtered, sorted and made accessible
+ * only once, the first time an object of that class is inspected.
+ */
+class InspectableField {
+
+  private static final MethodType GETTER_TYPE =
+    MethodType.methodType(Object.class, Object.class);
+
+  private static final ClassValue<List<InspectableField>> fieldsByClass =
+    new ClassValue<>() {
+      @Override
+      protected List<InspectableField> computeValue(Class<?> type) {
+        return findFields(type);
+      }
+    };
+
+  private final String name;
+  private final Class<?> type;
+  private final MethodHandle getter;
+
+  private InspectableField(Field field) throws IllegalAccessException {
+    this.name = field.getName();
+    this.type = field.getType();
+    this.getter =
+      MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+  }
+
+  /**
+   * @param type a class
+   * @return the non-static, non-hidden fields declared by that class,
+   * sorted by name.
+   */
+  static List<InspectableField> of(Class<?> type) {
+    return fieldsByClass.get(type);
+  }
+
+  private static List<InspectableField> findFields(Class<?> type) {
+    Field[] declaredFields = type.getDeclaredFields();
+    Arrays.sort(declaredFields, Comparator.comparing(Field::getName));
+    List<InspectableField> fields = new ArrayList<>();
+    for (Field field : declaredFields) {
+      if (isObservable(field)) {
+        try {
+          fields.add(new InspectableField(field));
+        } catch (IllegalAccessException e) {
+          e.printStackTrace();
+        }
+      }
+    }
+    return Collections.unmodifiableList(fields);
+  }
+
+  private static boolean isObservable(Field field) {
+    if (field.isAnnotationPresent(Hidden.class)
+      || Modifier.isStatic(field.getModifiers())) {
+      return false;
+    }
+    field.setAccessible(true);
+    return true;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * @param object an object of the class declaring this field
+   * @return the value of the field in that object, boxed if primitive
+   */
+  Object get(Object object) {
+    try {
+      return (Object) getter.invokeExact(object);
+    } catch (Throwable e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+}
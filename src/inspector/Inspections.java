@@ -2,7 +2,6 @@ package inspector;
 
 import inspector.primitiveArray.PrimitiveArrayInspection;
 
-import java.lang.reflect.Field;
 import java.util.*;
 import java.util.function.Supplier;
 
@@ -50,15 +49,8 @@ public class Inspections {
   }
 
 
-  static <O> Supplier fieldSupplier(O object, Field d) {
-    return () -> {
-      try {
-        return d.get(object);
-      } catch (IllegalAccessException e) {
-        e.printStackTrace();
-        return null;
-      }
-    };
+  static <O> Supplier fieldSupplier(O object, InspectableField field) {
+    return () -> field.get(object);
   }
 
 
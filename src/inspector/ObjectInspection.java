@@ -3,8 +3,6 @@ package inspector;
 import javafx.beans.Observable;
 import javafx.scene.control.TreeItem;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.function.Supplier;
 
@@ -34,8 +32,15 @@ public class ObjectInspection extends AbstractInspection {
   }
 
 
+  /**
+   * Updates the fields, unless the item is collapsed: they are then
+   * updated when it gets expanded again.
+   */
   @Override
   public void update() {
+    if (!item.isExpanded()) {
+      return;
+    }
     for (Inspection inspect : observableFields) {
       inspect.update();
     }
@@ -44,6 +49,9 @@ public class ObjectInspection extends AbstractInspection {
   private boolean isComplete = false;
   private void expand(Observable observable) {
     if (isComplete) {
+      if (item.isExpanded()) {
+        update();
+      }
       return;
     }
     isComplete = true;
@@ -57,26 +65,13 @@ public class ObjectInspection extends AbstractInspection {
 
 
   private void initializeObservableFields() {
-    List<Field> declaredFields =
-      Arrays.asList(inspected.getClass().getDeclaredFields());
-    declaredFields.sort(Comparator.comparing(Field::getName));
-    for (Field field : declaredFields) {
-      if (isObservable(field)) {
-        initializeField(field);
-      }
-    }
-  }
-
-  private boolean isObservable(Field field) {
-    if (field.isAnnotationPresent(Hidden.class)) {
-      return false;
+    for (InspectableField field : InspectableField.of(inspected.getClass())) {
+      initializeField(field);
     }
-    field.setAccessible(true);
-    return !Modifier.isStatic(field.getModifiers());
   }
 
 
-  private void initializeField(Field field) {
+  private void initializeField(InspectableField field) {
     Class<?> subClass = field.getType();
     Supplier getter = Inspections.fieldSupplier(inspected, field);
     String name = field.getName();
@@ -0,0 +1,161 @@
+package inspector;
+
+import javafx.scene.control.TreeItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Manages the children of an item inspecting many elements. Up to
+ * PAGE_SIZE elements are shown directly under the item, more are split
+ * into pages of PAGE_SIZE elements, each expanded separately. Collapsed
+ * items and pages only hold a placeholder, so that only the elements
+ * actually visible need to be inspected.
+ */
+public class PagedChildren {
+
+  /**
+   * The maximum number of elements shown under an item or a page.
+   */
+  public static final int PAGE_SIZE = 100;
+
+  private final TreeItem<String> item;
+  private final Runnable onExpansion;
+  private final List<TreeItem<String>> pages = new ArrayList<>();
+  private final List<TreeItem<String>> buffer = new ArrayList<>();
+  private int size = 0;
+
+  /**
+   * @param item        the item receiving the elements
+   * @param onExpansion what to do when a page gets expanded, usually
+   *                    updating the inspection owning the item
+   */
+  public PagedChildren(TreeItem<String> item, Runnable onExpansion) {
+    this.item = item;
+    this.onExpansion = onExpansion;
+  }
+
+  /**
+   * Creates or removes pages so that the item can hold a given number of
+   * elements.
+   *
+   * @param size the number of elements
+   */
+  public void resize(int size) {
+    boolean wasPaged = isPaged();
+    this.size = size;
+    int pageCount = isPaged() ? (size + PAGE_SIZE - 1) / PAGE_SIZE : 0;
+    while (pages.size() > pageCount) {
+      pages.remove(pages.size() - 1);
+    }
+    while (pages.size() < pageCount) {
+      pages.add(makePage(pages.size()));
+    }
+    if (isPaged()) {
+      for (int page = 0; page < pageCount; page++) {
+        String name = getPageName(page);
+        if (!name.equals(pages.get(page).getValue())) {
+          pages.get(page).setValue(name);
+        }
+      }
+      setChildren(item, pages);
+    } else if (size == 0) {
+      item.getChildren().clear();
+    } else if (wasPaged || item.getChildren().isEmpty()) {
+      item.getChildren().setAll(placeholder());
+    }
+  }
+
+  private TreeItem<String> makePage(int page) {
+    TreeItem<String> pageItem = new TreeItem<>(getPageName(page));
+    pageItem.getChildren().add(placeholder());
+    pageItem.expandedProperty().addListener(
+      (observable, wasExpanded, isExpanded) -> {
+        if (isExpanded) {
+          onExpansion.run();
+        } else {
+          pageItem.getChildren().setAll(placeholder());
+        }
+      });
+    return pageItem;
+  }
+
+  private String getPageName(int page) {
+    int from = page * PAGE_SIZE;
+    return "[" + from + ".." + (getEnd(page) - 1) + "]";
+  }
+
+  private static TreeItem<String> placeholder() {
+    return new TreeItem<>("...");
+  }
+
+  private boolean isPaged() {
+    return size > PAGE_SIZE;
+  }
+
+  /**
+   * @param index the index of an element
+   * @return the page containing that element
+   */
+  public int getPage(int index) {
+    return index / PAGE_SIZE;
+  }
+
+  /**
+   * @param page a page
+   * @return the index following the last element of the page
+   */
+  public int getEnd(int page) {
+    return Math.min(size, (page + 1) * PAGE_SIZE);
+  }
+
+  /**
+   * @param page a page
+   * @return whether the elements of the page are visible.
+   */
+  public boolean isVisible(int page) {
+    return item.isExpanded() && (!isPaged() || pages.get(page).isExpanded());
+  }
+
+  /**
+   * Sets the items of the elements of a page, if they changed.
+   *
+   * @param page  a page
+   * @param items the items of its elements, in order
+   */
+  public void setPage(int page, List<TreeItem<String>> items) {
+    setChildren(isPaged() ? pages.get(page) : item, items);
+  }
+
+  private static void setChildren(TreeItem<String> parent, List<TreeItem<String>> children) {
+    if (!parent.getChildren().equals(children)) {
+      parent.getChildren().setAll(children);
+    }
+  }
+
+  /**
+   * Updates the visible elements of an array, or of any other indexed
+   * container, creating their inspections when they are first shown.
+   *
+   * @param inspections the inspections of the elements, null until shown
+   * @param factory     builds the inspection of the element of an index
+   */
+  public void updateIndexed(Inspection[] inspections, IntFunction<Inspection> factory) {
+    int pageCount = isPaged() ? pages.size() : 1;
+    for (int page = 0; page < pageCount; page++) {
+      if (!isVisible(page)) {
+        continue;
+      }
+      for (int index = page * PAGE_SIZE; index < getEnd(page); index++) {
+        if (inspections[index] == null) {
+          inspections[index] = factory.apply(index);
+        }
+        inspections[index].update();
+        buffer.add(inspections[index].getItem());
+      }
+      setPage(page, buffer);
+      buffer.clear();
+    }
+  }
+}
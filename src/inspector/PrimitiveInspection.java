@@ -2,12 +2,15 @@ package inspector;
 
 import javafx.scene.control.TreeItem;
 
+import java.util.Objects;
 import java.util.function.Supplier;
 
 public class PrimitiveInspection<S> extends AbstractInspection {
 
   private final String name;
   private final Supplier<S> getter;
+  private boolean isDisplayed = false;
+  private S displayedValue;
 
   public PrimitiveInspection(Supplier<S> getter, String name) {
     this.name = name;
@@ -19,6 +22,12 @@ public class PrimitiveInspection<S> extends AbstractInspection {
 
   @Override
   public void update() {
-    item.setValue(name + ": " + getter.get());
+    S value = getter.get();
+    if (isDisplayed && Objects.equals(value, displayedValue)) {
+      return;
+    }
+    isDisplayed = true;
+    displayedValue = value;
+    item.setValue(name + ": " + value);
   }
 }
@@ -6,22 +6,75 @@ import javafx.scene.control.TreeView;
 import javafx.scene.input.KeyEvent;
 
 
+/**
+ * Displays an inspection in a tree view. The tree is refreshed at most
+ * refreshRate times per second, however often render is called, and
+ * only the expanded nodes are refreshed.
+ */
 public class View {
 
+  /**
+   * The default number of refreshes per second.
+   */
+  public static final double DEFAULT_REFRESH_RATE = 15;
+
   private final Inspection inspection;
+  private long refreshPeriodNanos;
+  private long lastRefreshNanos;
+  private boolean hasRefreshed = false;
 
 
   public View(TreeView treeView, Inspection inspection) {
+    this(treeView, inspection, DEFAULT_REFRESH_RATE);
+  }
+
+  /**
+   * @param treeView    the tree view displaying the inspection
+   * @param inspection  the inspection to display
+   * @param refreshRate the maximum number of refreshes per second, or 0
+   *                    to refresh on every call to render
+   */
+  public View(TreeView treeView, Inspection inspection, double refreshRate) {
     this.inspection = inspection;
+    setRefreshRate(refreshRate);
     treeView.addEventFilter(KeyEvent.ANY, Event::consume);
     TreeItem<String> root = inspection.getItem();
     treeView.setRoot(root);
     root.setExpanded(true);
   }
 
+  /**
+   * @param refreshRate the maximum number of refreshes per second, or 0
+   *                    to refresh on every call to render
+   */
+  public void setRefreshRate(double refreshRate) {
+    this.refreshPeriodNanos =
+      (refreshRate <= 0) ? 0 : (long) (1e9 / refreshRate);
+  }
+
+  /**
+   * Refreshes the tree, unless it was refreshed less than a refresh
+   * period ago.
+   */
   public void render() {
+    long now = System.nanoTime();
+    if (hasRefreshed && now - lastRefreshNanos < refreshPeriodNanos) {
+      return;
+    }
+    refresh(now);
+  }
+
+  /**
+   * Refreshes the tree immediately.
+   */
+  public void refresh() {
+    refresh(System.nanoTime());
+  }
+
+  private void refresh(long now) {
+    hasRefreshed = true;
+    lastRefreshNanos = now;
     inspection.update();
   }
 
 }
-
@@ -2,6 +2,7 @@ package inspector.primitiveArray;
 
 import inspector.AbstractInspection;
 import inspector.Inspection;
+import inspector.PagedChildren;
 import javafx.scene.control.TreeItem;
 
 import java.util.function.Supplier;
@@ -31,25 +32,34 @@ public abstract class PrimitiveArrayInspection extends AbstractInspection {
   protected abstract boolean arrayIsNull();
 
   private final String name;
+  private final PagedChildren children;
   Inspection[] inspectors;
 
 
   public PrimitiveArrayInspection(String name) {
     this.name = name;
     this.item = new TreeItem<>(name);
+    this.children = new PagedChildren(item, this::update);
+    updateOnExpansion();
   }
 
 
 
+  /**
+   * Updates the elements visible in the expanded pages, the inspections
+   * of the other elements being created when they are first shown.
+   */
   @Override
   public void update() {
     if (arrayHasChanged()) {
       initialize();
-      return;
     }
-    for (int i = 0; i < getLength(); i++) {
-      inspectors[i].update();
+    if (arrayIsNull()) {
+      return;
     }
+    children.updateIndexed(
+      inspectors,
+      index -> makeInspection(index, Integer.toString(index)));
   }
 
 
@@ -57,15 +67,12 @@ public abstract class PrimitiveArrayInspection extends AbstractInspection {
     resetArray();
     if (arrayIsNull()) {
       item.setValue(name + ": null");
+      children.resize(0);
       return;
     }
     item.setValue(name + " (" + getLength() + ")");
     inspectors = new Inspection[getLength()];
-    item.getChildren().clear();
-    for (int i = 0; i < getLength(); i++) {
-      inspectors[i] = makeInspection(i, Integer.toString(i));
-      item.getChildren().add(inspectors[i].getItem());
-    }
+    children.resize(getLength());
   }
 
 }
@@ -0,0 +1,118 @@
+package tools;
+
+/**
+ * A bounded queue of byte records, for a single producer thread and a
+ * single consumer thread, that never blocks and never allocates once
+ * created. Records are copied into a circular array, each one preceded by
+ * its length, and the two threads only synchronize through the volatile
+ * positions at which they write and read.
+ */
+public class ByteRing {
+
+  private static final int LENGTH_BYTES = 4;
+
+  private final byte[] bytes;
+  private final int mask;
+
+  /**
+   * The number of bytes ever written, only changed by the producer.
+   */
+  private volatile long writePosition = 0;
+
+  /**
+   * The number of bytes ever read, only changed by the consumer.
+   */
+  private volatile long readPosition = 0;
+
+  /**
+   * @param capacity the number of bytes of the ring, a power of two
+   */
+  public ByteRing(int capacity) {
+    if (capacity < LENGTH_BYTES || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("capacity must be a power of two");
+    }
+    this.bytes = new byte[capacity];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * @return the number of bytes of the ring.
+   */
+  public int getCapacity() {
+    return bytes.length;
+  }
+
+  /**
+   * @return the length of the longest record that can ever be added.
+   */
+  public int getMaxRecordLength() {
+    return bytes.length - LENGTH_BYTES;
+  }
+
+  /**
+   * Adds a record, if there is enough room for it. Must only be called
+   * by the producer thread.
+   *
+   * @param source where to copy the record from
+   * @param offset the index of the first byte of the record in source
+   * @param length the number of bytes of the record
+   * @return whether the record was added
+   */
+  public boolean offer(byte[] source, int offset, int length) {
+    long position = writePosition;
+    if (position + LENGTH_BYTES + length - readPosition > bytes.length) {
+      return false;
+    }
+    for (int i = 0; i < LENGTH_BYTES; i++) {
+      bytes[(int) (position + i) & mask] = (byte) (length >>> (8 * (LENGTH_BYTES - 1 - i)));
+    }
+    copyIn(source, offset, position + LENGTH_BYTES, length);
+    writePosition = position + LENGTH_BYTES + length;
+    return true;
+  }
+
+  /**
+   * Must only be called by the consumer thread.
+   *
+   * @return the length of the next record, or -1 if there is none.
+   */
+  public int peekLength() {
+    long position = readPosition;
+    if (position == writePosition) {
+      return -1;
+    }
+    int length = 0;
+    for (int i = 0; i < LENGTH_BYTES; i++) {
+      length = (length << 8) | (bytes[(int) (position + i) & mask] & 0xFF);
+    }
+    return length;
+  }
+
+  /**
+   * Removes the next record. Must only be called by the consumer thread.
+   *
+   * @param destination where to copy the record, with room for at least
+   *                    peekLength bytes
+   * @return the length of the record, or -1 if there is none
+   */
+  public int poll(byte[] destination) {
+    int length = peekLength();
+    if (length < 0) {
+      return -1;
+    }
+    long position = readPosition + LENGTH_BYTES;
+    int start = (int) position & mask;
+    int firstPart = Math.min(length, bytes.length - start);
+    System.arraycopy(bytes, start, destination, 0, firstPart);
+    System.arraycopy(bytes, 0, destination, firstPart, length - firstPart);
+    readPosition = position + length;
+    return length;
+  }
+
+  private void copyIn(byte[] source, int offset, long position, int length) {
+    int start = (int) position & mask;
+    int firstPart = Math.min(length, bytes.length - start);
+    System.arraycopy(source, offset, bytes, start, firstPart);
+    System.arraycopy(source, offset + firstPart, bytes, 0, length - firstPart);
+  }
+}
@@ -0,0 +1,71 @@
+package tools;
+
+/**
+ * Converts irregular elapsed times into a number of fixed time steps to
+ * simulate. The time not simulated yet is carried over to the next call.
+ * After a long pause, at most a given number of steps are simulated and
+ * the rest of the delay is dropped, so that a simulation which cannot
+ * keep up slows down instead of spending ever more time catching up.
+ */
+public class FixedStepAccumulator {
+
+  private final double timeStep;
+  private final int maxSteps;
+
+  /**
+   * The time elapsed and not simulated yet, in seconds.
+   */
+  private double accumulator = 0;
+
+  /**
+   * @param timeStep the duration of a step, in seconds
+   * @param maxSteps the maximum number of steps for one elapsed time
+   */
+  public FixedStepAccumulator(double timeStep, int maxSteps) {
+    this.timeStep = timeStep;
+    this.maxSteps = maxSteps;
+  }
+
+  /**
+   * @return the duration of a step, in seconds.
+   */
+  public double getTimeStep() {
+    return timeStep;
+  }
+
+  /**
+   * @param elapsed the time elapsed since the last call, in seconds
+   * @return the number of steps to simulate now
+   */
+  public int advance(double elapsed) {
+    accumulator += elapsed;
+    int steps = (int) Math.min(maxSteps, Math.floor(accumulator / timeStep));
+    accumulator -= steps * timeStep;
+    if (accumulator >= timeStep) {
+      accumulator = accumulator % timeStep;
+    }
+    return steps;
+  }
+
+  /**
+   * @return the fraction of a step elapsed and not simulated yet,
+   * between 0 and 1.
+   */
+  public double getAlpha() {
+    return accumulator / timeStep;
+  }
+
+  /**
+   * @return the time elapsed and not simulated yet, in seconds.
+   */
+  public double getRemainder() {
+    return accumulator;
+  }
+
+  /**
+   * Forgets the time not simulated yet.
+   */
+  public void reset() {
+    accumulator = 0;
+  }
+}
@@ -0,0 +1,127 @@
+package tools;
+
+import inspector.InspectWithToString;
+
+/**
+ * 2-dimensional vectors that can be modified in place. They complement
+ * the immutable {@link Vector} in code run on every tick, where creating
+ * a new vector for each operation would produce a lot of garbage. Each
+ * operation modifies this vector and returns it, so operations can be
+ * chained.
+ */
+@InspectWithToString
+public class MutableVector {
+
+  private double x;
+  private double y;
+
+
+  public MutableVector(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  public MutableVector(Vector vec) {
+    this(vec.getX(), vec.getY());
+  }
+
+  public double getX() {
+    return x;
+  }
+
+  public double getY() {
+    return y;
+  }
+
+  /** Sets both coordinates.
+   * @param x the new abscissa
+   * @param y the new ordinate
+   * @return this
+   */
+  public MutableVector set(double x, double y) {
+    this.x = x;
+    this.y = y;
+    return this;
+  }
+
+  /** Copies the coordinates of a vector.
+   * @param vec the vector to copy
+   * @return this
+   */
+  public MutableVector set(Vector vec) {
+    return set(vec.getX(), vec.getY());
+  }
+
+  /** Vector addition, in place.
+   * @param dx the abscissa of the vector to add
+   * @param dy the ordinate of the vector to add
+   * @return this, now equal to this + (dx,dy)
+   */
+  public MutableVector addInPlace(double dx, double dy) {
+    x = x + dx;
+    y = y + dy;
+    return this;
+  }
+
+  /** Vector addition, in place.
+   * @param vec vector to add
+   * @return this, now equal to this + vec
+   */
+  public MutableVector addInPlace(Vector vec) {
+    return addInPlace(vec.getX(), vec.getY());
+  }
+
+  /** Addition of a multiple of a vector, in place.
+   * @param scalar a scalar
+   * @param vec vector to scale and add
+   * @return this, now equal to this + scalar * vec
+   */
+  public MutableVector scaleAddInPlace(double scalar, Vector vec) {
+    return addInPlace(scalar * vec.getX(), scalar * vec.getY());
+  }
+
+  /** Addition of a multiple of a vector, in place.
+   * @param scalar a scalar
+   * @param vec vector to scale and add
+   * @return this, now equal to this + scalar * vec
+   */
+  public MutableVector scaleAddInPlace(double scalar, MutableVector vec) {
+    return addInPlace(scalar * vec.getX(), scalar * vec.getY());
+  }
+
+  /** Scalar multiplication, in place.
+   * @param scalar a scalar
+   * @return this, now equal to scalar * this
+   */
+  public MutableVector multiplyInPlace(double scalar) {
+    return set(scalar * x, scalar * y);
+  }
+
+  /** Rotation around (0,0), in place, with the same convention as
+   * {@link Vector#rotate(double)}.
+   * @param degrees degrees of rotation
+   * @return this, rotated
+   */
+  public MutableVector rotateInPlace(double degrees) {
+    double rad = Math.toRadians(degrees);
+    double sine = Math.sin(rad);
+    double cosine = Math.cos(rad);
+    return set(
+      cosine * x + sine * y,
+      -sine * x + cosine * y
+    );
+  }
+
+  /**
+   * @return an immutable copy of this vector
+   */
+  public Vector toVector() {
+    return new Vector(x, y);
+  }
+
+  @Override
+  public String toString() {
+    return "(" + getX() + ", " + getY() + ")";
+  }
+
+}
@@ -0,0 +1,100 @@
+package tools;
+
+import java.util.Arrays;
+
+/**
+ * A bounded stack of objects that are no longer used, kept to be reused
+ * instead of allocating new ones. The pool does not know how to create or
+ * reset its objects: a caller takes an object from the pool, resets it
+ * itself, and creates a new one when the pool is empty. Objects released
+ * while the pool is full are left to the garbage collector.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <T> the type of the pooled objects
+ */
+public class ObjectPool<T> {
+
+  private final Object[] objects;
+  private int count = 0;
+
+  private long hits = 0;
+  private long misses = 0;
+
+  /**
+   * @param capacity the largest number of objects kept
+   */
+  public ObjectPool(int capacity) {
+    this.objects = new Object[capacity];
+  }
+
+  /**
+   * Takes an object out of the pool. It is in the state it was released
+   * in, and must be reset before being used.
+   *
+   * @return an object released earlier, or null if the pool is empty
+   */
+  @SuppressWarnings("unchecked")
+  public T acquire() {
+    if (count == 0) {
+      misses++;
+      return null;
+    }
+    hits++;
+    T object = (T) objects[--count];
+    objects[count] = null;
+    return object;
+  }
+
+  /**
+   * Gives an object back to the pool. The caller must not use it anymore.
+   *
+   * @param object an object that is no longer used
+   * @return whether the object was kept, false if the pool was full
+   */
+  public boolean release(T object) {
+    if (count == objects.length) {
+      return false;
+    }
+    objects[count++] = object;
+    return true;
+  }
+
+  /**
+   * Forgets every object in the pool.
+   */
+  public void clear() {
+    Arrays.fill(objects, 0, count, null);
+    count = 0;
+  }
+
+  /**
+   * @return the number of objects in the pool.
+   */
+  public int size() {
+    return count;
+  }
+
+  public int getCapacity() {
+    return objects.length;
+  }
+
+  /**
+   * @return the number of calls to acquire that returned an object.
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * @return the number of calls to acquire that found the pool empty.
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  @Override
+  public String toString() {
+    return size() + "/" + getCapacity() + " pooled, " + hits + " hits, " + misses + " misses";
+  }
+}
@@ -0,0 +1,106 @@
+package tools;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs loops over a range of indices on a fork/join pool, split into
+ * contiguous chunks. The chunks are numbered in the order of their
+ * indices, so that results collected per chunk can be merged in the same
+ * order as a sequential loop would have produced them. Loops too small
+ * to be worth splitting, and every loop when the parallelism is 1, run
+ * as a single chunk on the calling thread.
+ */
+public class ParallelLoop {
+
+  /**
+   * What is run for each chunk of a loop.
+   */
+  public interface Body {
+
+    /**
+     * @param chunk the number of the chunk, from 0 to the chunk count
+     * @param from  the first index of the chunk
+     * @param to    the index following the last one of the chunk
+     */
+    void run(int chunk, int from, int to);
+  }
+
+  /**
+   * How many chunks each worker gets, so that a worker finishing early
+   * can steal work from the others.
+   */
+  private static final int CHUNKS_PER_WORKER = 4;
+
+  private final int parallelism;
+  private final int minChunkSize;
+  private final ForkJoinPool pool;
+
+  /**
+   * @param parallelism  the number of worker threads, 1 to run every loop
+   *                     on the calling thread
+   * @param minChunkSize the minimum number of indices in a chunk
+   */
+  public ParallelLoop(int parallelism, int minChunkSize) {
+    if (parallelism < 1 || minChunkSize < 1) {
+      throw new IllegalArgumentException("parallelism and chunk size must be positive");
+    }
+    this.parallelism = parallelism;
+    this.minChunkSize = minChunkSize;
+    this.pool = (parallelism == 1) ? null : new ForkJoinPool(parallelism);
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * @param count the number of indices of a loop
+   * @return the number of chunks the loop is split into.
+   */
+  public int getChunkCount(int count) {
+    if (pool == null) {
+      return 1;
+    }
+    int maxChunks = parallelism * CHUNKS_PER_WORKER;
+    return Math.max(1, Math.min(maxChunks, count / minChunkSize));
+  }
+
+  /**
+   * Runs a loop over the indices from 0 to count, and waits for all of
+   * its chunks to complete.
+   *
+   * @param count the number of indices
+   * @param body  what to run for each chunk
+   */
+  public void run(int count, Body body) {
+    int chunkCount = getChunkCount(count);
+    if (chunkCount == 1) {
+      body.run(0, 0, count);
+      return;
+    }
+    pool.invoke(new RecursiveAction() {
+      @Override
+      protected void compute() {
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[chunkCount];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+          int from = (int) ((long) count * chunk / chunkCount);
+          int to = (int) ((long) count * (chunk + 1) / chunkCount);
+          int number = chunk;
+          tasks[chunk] = ForkJoinTask.adapt(() -> body.run(number, from, to));
+        }
+        invokeAll(tasks);
+      }
+    });
+  }
+
+  /**
+   * Stops the worker threads, the loop must not be used afterwards.
+   */
+  public void shutdown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+}
@@ -11,11 +11,46 @@ public class Polygon {
 
   private final List<Vector> vertices;
 
+  /**
+   * The coordinates of the vertices, in the same order, for computations
+   * working on primitive values.
+   */
+  private final double[] xs;
+  private final double[] ys;
+
+  /**
+   * The largest distance from (0,0) to a vertex of the polygon.
+   */
+  private final double radius;
+
   /**
    * @param vertices vertices in counterclockwise order.
    */
   public Polygon(List<Vector> vertices) {
     this.vertices = vertices;
+    this.radius = maxNorm(vertices);
+    this.xs = new double[vertices.size()];
+    this.ys = new double[vertices.size()];
+    for (int i = 0; i < vertices.size(); i++) {
+      xs[i] = vertices.get(i).getX();
+      ys[i] = vertices.get(i).getY();
+    }
+  }
+
+  private static double maxNorm(List<Vector> vertices) {
+    double maxNorm2 = 0;
+    for (Vector vertex : vertices) {
+      maxNorm2 = Math.max(maxNorm2, vertex.norm2());
+    }
+    return Math.sqrt(maxNorm2);
+  }
+
+  /**
+   * @return the radius of the smallest disk centered on (0,0) containing
+   * the polygon, that is the largest norm of its vertices.
+   */
+  public double getRadius() {
+    return radius;
   }
 
   /**
@@ -30,6 +65,105 @@ public class Polygon {
    * @return true if the point is inside the polygon
    */
   public boolean contains(Vector point) {
+    return contains(xs, ys, nbVertices(), point.getX(), point.getY());
+  }
+
+  /** Checks whether a point is inside a polygon given by the coordinates
+   * of its vertices, using its winding number: the number of times the
+   * boundary turns around the point is computed by counting signed
+   * crossings of the horizontal half-line starting at the point. No
+   * trigonometry is needed and nothing is allocated.
+   * @param xs the abscissas of the vertices
+   * @param ys the ordinates of the vertices
+   * @param nbVertices the number of vertices to consider in xs and ys
+   * @param x the abscissa of the point
+   * @param y the ordinate of the point
+   * @return true if the winding number of the polygon around the point
+   * is not zero
+   */
+  public static boolean contains(double[] xs, double[] ys, int nbVertices, double x, double y) {
+    int windingNumber = 0;
+    double previousX = xs[nbVertices - 1];
+    double previousY = ys[nbVertices - 1];
+    for (int i = 0; i < nbVertices; i++) {
+      double currentX = xs[i];
+      double currentY = ys[i];
+      double side =
+        (currentX - previousX) * (y - previousY)
+          - (x - previousX) * (currentY - previousY);
+      if (previousY <= y) {
+        if (currentY > y && side > 0) {
+          windingNumber++;
+        }
+      } else if (currentY <= y && side < 0) {
+        windingNumber--;
+      }
+      previousX = currentX;
+      previousY = currentY;
+    }
+    return windingNumber != 0;
+  }
+
+  /** Checks whether a segment meets a polygon given by the coordinates
+   * of its vertices: either its end is inside the polygon, or it crosses
+   * one of the edges. A segment starting inside the polygon and leaving it
+   * crosses an edge, so its start needs not be tested.
+   * @param xs the abscissas of the vertices
+   * @param ys the ordinates of the vertices
+   * @param nbVertices the number of vertices to consider in xs and ys
+   * @param startX the abscissa of the start of the segment
+   * @param startY the ordinate of the start of the segment
+   * @param endX the abscissa of the end of the segment
+   * @param endY the ordinate of the end of the segment
+   * @return true if the segment and the polygon have a common point
+   */
+  public static boolean meetsSegment(double[] xs, double[] ys, int nbVertices,
+                                     double startX, double startY,
+                                     double endX, double endY) {
+    if (contains(xs, ys, nbVertices, endX, endY)) {
+      return true;
+    }
+    double previousX = xs[nbVertices - 1];
+    double previousY = ys[nbVertices - 1];
+    for (int i = 0; i < nbVertices; i++) {
+      if (segmentsMeet(previousX, previousY, xs[i], ys[i], startX, startY, endX, endY)) {
+        return true;
+      }
+      previousX = xs[i];
+      previousY = ys[i];
+    }
+    return false;
+  }
+
+  private static boolean segmentsMeet(double ax, double ay, double bx, double by,
+                                      double cx, double cy, double dx, double dy) {
+    double sideOfC = side(ax, ay, bx, by, cx, cy);
+    double sideOfD = side(ax, ay, bx, by, dx, dy);
+    double sideOfA = side(cx, cy, dx, dy, ax, ay);
+    double sideOfB = side(cx, cy, dx, dy, bx, by);
+    if (sideOfC == 0 && sideOfD == 0) {
+      // aligned, they meet if their projections on both axes overlap
+      return Math.max(Math.min(ax, bx), Math.min(cx, dx)) <= Math.min(Math.max(ax, bx), Math.max(cx, dx))
+        && Math.max(Math.min(ay, by), Math.min(cy, dy)) <= Math.min(Math.max(ay, by), Math.max(cy, dy));
+    }
+    return sideOfC * sideOfD <= 0 && sideOfA * sideOfB <= 0;
+  }
+
+  /**
+   * @return positive if (x,y) is on the left of the line from (ax,ay) to
+   * (bx,by), negative if it is on the right, zero if it is on the line.
+   */
+  private static double side(double ax, double ay, double bx, double by, double x, double y) {
+    return (bx - ax) * (y - ay) - (x - ax) * (by - ay);
+  }
+
+  /** Checks whether an arbitrary point is inside or outside the polygon,
+   * by summing the angles under which the edges are seen from the point.
+   * This is slower than <em>contains</em>, and is kept as a reference.
+   * @param point an arbitrary point, distinct from the vertices
+   * @return true if the point is inside the polygon
+   */
+  public boolean containsByWindingAngle(Vector point) {
     Vector previous =
       vertices.get(nbVertices() - 1).subtract(point).normalize();
     double angle = 0;
@@ -43,6 +177,65 @@ public class Polygon {
   }
 
 
+  /** Writes the coordinates of the vertices of the polygon, rotated around
+   * (0,0) then translated, into preallocated buffers. This computes the same
+   * points as <em>rotate</em> followed by <em>translate</em>, without
+   * allocating and with a single evaluation of the trigonometric functions.
+   * @param angleInDegree angle of rotation
+   * @param dx the abscissa of the vector of translation
+   * @param dy the ordinate of the vector of translation
+   * @param xs the buffer receiving the abscissas, of length at least nbVertices()
+   * @param ys the buffer receiving the ordinates, of length at least nbVertices()
+   */
+  public void rotateAndTranslateInto(double angleInDegree, double dx, double dy,
+                                     double[] xs, double[] ys) {
+    scaleRotateAndTranslateInto(1, angleInDegree, dx, dy, xs, ys);
+  }
+
+
+  /** Same as rotateAndTranslateInto, with the polygon first scaled around
+   * (0,0), so that a single shape can be shared by polygons of different
+   * sizes.
+   * @param scale the factor applied to the coordinates of the vertices
+   * @param angleInDegree angle of rotation
+   * @param dx the abscissa of the vector of translation
+   * @param dy the ordinate of the vector of translation
+   * @param xs the buffer receiving the abscissas, of length at least nbVertices()
+   * @param ys the buffer receiving the ordinates, of length at least nbVertices()
+   */
+  public void scaleRotateAndTranslateInto(double scale, double angleInDegree,
+                                          double dx, double dy,
+                                          double[] xs, double[] ys) {
+    double rad = Math.toRadians(angleInDegree);
+    transformInto(scale * Math.cos(rad), scale * Math.sin(rad), dx, dy, xs, ys);
+  }
+
+
+  /** Same as scaleRotateAndTranslateInto, with a rotation whose cosine
+   * and sine are already known, so that no trigonometry is needed.
+   * @param scale the factor applied to the coordinates of the vertices
+   * @param rotation the rotation
+   * @param dx the abscissa of the vector of translation
+   * @param dy the ordinate of the vector of translation
+   * @param xs the buffer receiving the abscissas, of length at least nbVertices()
+   * @param ys the buffer receiving the ordinates, of length at least nbVertices()
+   */
+  public void scaleRotateAndTranslateInto(double scale, Rotation rotation,
+                                          double dx, double dy,
+                                          double[] xs, double[] ys) {
+    transformInto(
+      scale * rotation.getCosine(), scale * rotation.getSine(), dx, dy, xs, ys);
+  }
+
+  private void transformInto(double cosine, double sine, double dx, double dy,
+                             double[] xs, double[] ys) {
+    for (int i = 0; i < nbVertices(); i++) {
+      xs[i] = cosine * this.xs[i] + sine * this.ys[i] + dx;
+      ys[i] = -sine * this.xs[i] + cosine * this.ys[i] + dy;
+    }
+  }
+
+
   /** Applies a transformation to the vertices of the polygon.
    * @param transform the transformation to apply to the vertices
    * @return the polygon with transformed vertices.
@@ -61,7 +254,11 @@ public class Polygon {
    * @return the rotated polygon
    */
   public Polygon rotate(double angleInDegree) {
-    return transform(vec -> vec.rotate(angleInDegree));
+    Rotation rotation = new Rotation().setAngle(angleInDegree);
+    return transform(vec -> new Vector(
+      rotation.rotateX(vec.getX(), vec.getY()),
+      rotation.rotateY(vec.getX(), vec.getY())
+    ));
   }
 
   /** Computes the translation of a polygon.
@@ -73,6 +270,22 @@ public class Polygon {
   }
 
 
+  /**
+   * @param index the index of a vertex
+   * @return the abscissa of that vertex
+   */
+  public double getVertexX(int index) {
+    return xs[index];
+  }
+
+  /**
+   * @param index the index of a vertex
+   * @return the ordinate of that vertex
+   */
+  public double getVertexY(int index) {
+    return ys[index];
+  }
+
   /**
    * @return the list of vertices defining the polygon
    */
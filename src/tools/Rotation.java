@@ -0,0 +1,79 @@
+package tools;
+
+/**
+ * A rotation around (0,0), with the same convention as
+ * {@link Vector#rotate(double)}, kept as the cosine and sine of its
+ * angle. Objects that rotate their shape or their contact points carry
+ * one, so that the trigonometry is done once per change of angle rather
+ * than once per rotated point.
+ */
+public class Rotation {
+
+  /**
+   * The angle in degree of the rotation, NaN if it was set from a
+   * direction and is not known.
+   */
+  private double angle = 0;
+  private double cosine = 1;
+  private double sine = 0;
+
+  /**
+   * Sets the angle of the rotation, computing its cosine and sine only
+   * if the angle changed.
+   *
+   * @param degrees degrees of rotation
+   * @return this
+   */
+  public Rotation setAngle(double degrees) {
+    if (degrees != angle) {
+      double rad = Math.toRadians(degrees);
+      angle = degrees;
+      cosine = Math.cos(rad);
+      sine = Math.sin(rad);
+    }
+    return this;
+  }
+
+  /**
+   * Sets the rotation to the one by the angle from the horizontal to a
+   * vector, as returned by {@link Vector#angle()}, without any
+   * trigonometry.
+   *
+   * @param x the abscissa of a non-zero vector
+   * @param y the ordinate of a non-zero vector
+   * @return this
+   */
+  public Rotation setDirection(double x, double y) {
+    double norm = Math.sqrt(x * x + y * y);
+    angle = Double.NaN;
+    cosine = x / norm;
+    sine = y / norm;
+    return this;
+  }
+
+  public double getCosine() {
+    return cosine;
+  }
+
+  public double getSine() {
+    return sine;
+  }
+
+  /**
+   * @param x the abscissa of a point
+   * @param y the ordinate of a point
+   * @return the abscissa of the rotated point
+   */
+  public double rotateX(double x, double y) {
+    return cosine * x + sine * y;
+  }
+
+  /**
+   * @param x the abscissa of a point
+   * @param y the ordinate of a point
+   * @return the ordinate of the rotated point
+   */
+  public double rotateY(double x, double y) {
+    return -sine * x + cosine * y;
+  }
+}
@@ -0,0 +1,221 @@
+package tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Exact intersection tests between polygons, using the separating axis
+ * theorem: two convex polygons are disjoint if and only if their
+ * projections on the normal of one of their edges are disjoint. Polygons
+ * are given by the coordinates of their vertices in primitive arrays, so
+ * that nothing is allocated by the tests.
+ * <p>
+ * Non-convex polygons are handled when they are star-shaped around a
+ * known center, like the shapes of asteroids, by cutting them into the
+ * triangles between the center and each edge.
+ */
+public class SeparatingAxis {
+
+  private SeparatingAxis() {}
+
+  /**
+   * Computes the convex hull of a set of points, with Andrew's monotone
+   * chain algorithm.
+   *
+   * @param points at least three points, not all aligned
+   * @return the smallest convex polygon containing the points, whose
+   * vertices are some of the points.
+   */
+  public static Polygon convexHull(List<Vector> points) {
+    List<Vector> sorted = new ArrayList<>(points);
+    sorted.sort(Comparator.comparingDouble(Vector::getX).thenComparingDouble(Vector::getY));
+    List<Vector> hull = new ArrayList<>();
+    for (int pass = 0; pass < 2; pass++) {
+      int start = hull.size();
+      for (Vector point : sorted) {
+        while (hull.size() >= start + 2
+          && turn(hull.get(hull.size() - 2), hull.get(hull.size() - 1), point) <= 0) {
+          hull.remove(hull.size() - 1);
+        }
+        hull.add(point);
+      }
+      // the last point is the first one of the other chain
+      hull.remove(hull.size() - 1);
+      Collections.reverse(sorted);
+    }
+    return new Polygon(hull);
+  }
+
+  private static double turn(Vector a, Vector b, Vector c) {
+    return (b.getX() - a.getX()) * (c.getY() - a.getY())
+      - (b.getY() - a.getY()) * (c.getX() - a.getX());
+  }
+
+  /**
+   * @param axs        the abscissas of the vertices of a convex polygon
+   * @param ays        the ordinates of the vertices of a convex polygon
+   * @param aCount     the number of vertices of the first polygon
+   * @param bxs        the abscissas of the vertices of a convex polygon
+   * @param bys        the ordinates of the vertices of a convex polygon
+   * @param bCount     the number of vertices of the second polygon
+   * @return whether the two polygons have a common point
+   */
+  public static boolean convexPolygonsIntersect(double[] axs, double[] ays, int aCount,
+                                                double[] bxs, double[] bys, int bCount) {
+    return !hasSeparatingEdge(axs, ays, aCount, bxs, bys, bCount)
+      && !hasSeparatingEdge(bxs, bys, bCount, axs, ays, aCount);
+  }
+
+  /**
+   * @return whether the normal of one of the edges of the first polygon
+   * separates the two polygons.
+   */
+  private static boolean hasSeparatingEdge(double[] axs, double[] ays, int aCount,
+                                           double[] bxs, double[] bys, int bCount) {
+    double previousX = axs[aCount - 1];
+    double previousY = ays[aCount - 1];
+    for (int i = 0; i < aCount; i++) {
+      double normalX = previousY - ays[i];
+      double normalY = axs[i] - previousX;
+      if (isOutside(normalX, normalY, bxs, bys, bCount,
+        min(axs, ays, aCount, normalX, normalY), max(axs, ays, aCount, normalX, normalY))) {
+        return true;
+      }
+      previousX = axs[i];
+      previousY = ays[i];
+    }
+    return false;
+  }
+
+  /**
+   * @param convexXs the abscissas of the vertices of a convex polygon
+   * @param convexYs the ordinates of the vertices of a convex polygon
+   * @param convexCount the number of vertices of the convex polygon
+   * @param centerX  the abscissa of a point from which every point of the
+   *                 other polygon can be seen
+   * @param centerY  the ordinate of that point
+   * @param xs       the abscissas of the vertices of the other polygon
+   * @param ys       the ordinates of the vertices of the other polygon
+   * @param count    the number of vertices of the other polygon
+   * @return whether the two polygons have a common point
+   */
+  public static boolean intersectsStarShaped(double[] convexXs, double[] convexYs, int convexCount,
+                                             double centerX, double centerY,
+                                             double[] xs, double[] ys, int count) {
+    // the axes of the bounding box separate most triangles cheaply
+    double minX = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < convexCount; i++) {
+      minX = Math.min(minX, convexXs[i]);
+      maxX = Math.max(maxX, convexXs[i]);
+      minY = Math.min(minY, convexYs[i]);
+      maxY = Math.max(maxY, convexYs[i]);
+    }
+    double previousX = xs[count - 1];
+    double previousY = ys[count - 1];
+    for (int i = 0; i < count; i++) {
+      double x = xs[i];
+      double y = ys[i];
+      boolean isSeparatedByBox =
+        Math.max(centerX, Math.max(previousX, x)) < minX
+          || Math.min(centerX, Math.min(previousX, x)) > maxX
+          || Math.max(centerY, Math.max(previousY, y)) < minY
+          || Math.min(centerY, Math.min(previousY, y)) > maxY;
+      if (!isSeparatedByBox && intersectsTriangle(convexXs, convexYs, convexCount,
+        centerX, centerY, previousX, previousY, x, y)) {
+        return true;
+      }
+      previousX = x;
+      previousY = y;
+    }
+    return false;
+  }
+
+  /**
+   * @return whether a convex polygon and the triangle (a,b,c) have a
+   * common point.
+   */
+  private static boolean intersectsTriangle(double[] convexXs, double[] convexYs, int convexCount,
+                                            double ax, double ay,
+                                            double bx, double by,
+                                            double cx, double cy) {
+    // the outer edge first, the most likely to separate
+    if (separatesTriangle(cy - by, bx - cx, convexXs, convexYs, convexCount, ax, ay, bx, by, cx, cy)
+      || separatesTriangle(ay - cy, cx - ax, convexXs, convexYs, convexCount, ax, ay, bx, by, cx, cy)
+      || separatesTriangle(by - ay, ax - bx, convexXs, convexYs, convexCount, ax, ay, bx, by, cx, cy)) {
+      return false;
+    }
+    double previousX = convexXs[convexCount - 1];
+    double previousY = convexYs[convexCount - 1];
+    for (int i = 0; i < convexCount; i++) {
+      if (separatesTriangle(previousY - convexYs[i], convexXs[i] - previousX,
+        convexXs, convexYs, convexCount, ax, ay, bx, by, cx, cy)) {
+        return false;
+      }
+      previousX = convexXs[i];
+      previousY = convexYs[i];
+    }
+    return true;
+  }
+
+  /**
+   * @return whether the projections of a convex polygon and of the
+   * triangle (a,b,c) on an axis are disjoint.
+   */
+  private static boolean separatesTriangle(double normalX, double normalY,
+                                           double[] convexXs, double[] convexYs, int convexCount,
+                                           double ax, double ay,
+                                           double bx, double by,
+                                           double cx, double cy) {
+    double a = normalX * ax + normalY * ay;
+    double b = normalX * bx + normalY * by;
+    double c = normalX * cx + normalY * cy;
+    return isOutside(normalX, normalY, convexXs, convexYs, convexCount,
+      Math.min(a, Math.min(b, c)), Math.max(a, Math.max(b, c)));
+  }
+
+  /**
+   * @return whether the projection of a polygon on an axis is disjoint
+   * from an interval, stopping as soon as it is known to meet it.
+   */
+  private static boolean isOutside(double normalX, double normalY,
+                                   double[] xs, double[] ys, int count,
+                                   double min, double max) {
+    boolean isBelow = false;
+    boolean isAbove = false;
+    for (int i = 0; i < count; i++) {
+      double projection = normalX * xs[i] + normalY * ys[i];
+      if (projection < min) {
+        isBelow = true;
+      } else if (projection > max) {
+        isAbove = true;
+      } else {
+        return false;
+      }
+      if (isBelow && isAbove) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static double min(double[] xs, double[] ys, int count, double normalX, double normalY) {
+    double min = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < count; i++) {
+      min = Math.min(min, normalX * xs[i] + normalY * ys[i]);
+    }
+    return min;
+  }
+
+  private static double max(double[] xs, double[] ys, int count, double normalX, double normalY) {
+    double max = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < count; i++) {
+      max = Math.max(max, normalX * xs[i] + normalY * ys[i]);
+    }
+    return max;
+  }
+}
@@ -0,0 +1,105 @@
+package tools;
+
+/**
+ * A fast splittable pseudo-random generator, using the SplitMix64
+ * algorithm of java.util.SplittableRandom. Unlike SplittableRandom, its
+ * whole state is exposed, so that a generator can be saved and restored
+ * to produce the same values afterwards.
+ */
+public class SplitMix {
+
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+  private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+  /**
+   * The state, advanced by gamma for each value.
+   */
+  private long state;
+
+  /**
+   * An odd increment, different for each generator split from another.
+   */
+  private final long gamma;
+
+  /**
+   * @param seed the seed of the values
+   */
+  public SplitMix(long seed) {
+    this(seed, GOLDEN_GAMMA);
+  }
+
+  /**
+   * Restores a generator from its state.
+   *
+   * @param state the state returned by getState
+   * @param gamma the increment returned by getGamma
+   */
+  public SplitMix(long state, long gamma) {
+    if ((gamma & 1) == 0) {
+      throw new IllegalArgumentException("gamma must be odd");
+    }
+    this.state = state;
+    this.gamma = gamma;
+  }
+
+  public long getState() {
+    return state;
+  }
+
+  public long getGamma() {
+    return gamma;
+  }
+
+  /**
+   * @return a uniformly distributed long.
+   */
+  public long nextLong() {
+    state += gamma;
+    return mix64(state);
+  }
+
+  /**
+   * @return a uniformly distributed value between 0 (inclusive) and 1
+   * (exclusive).
+   */
+  public double nextDouble() {
+    return (nextLong() >>> 11) * DOUBLE_UNIT;
+  }
+
+  /**
+   * @param origin the smallest possible value
+   * @param bound  the value following the largest possible value
+   * @return a uniformly distributed value between origin and bound.
+   */
+  public int nextInt(int origin, int bound) {
+    long range = (long) bound - origin;
+    if (range <= 0) {
+      throw new IllegalArgumentException("bound must be greater than origin");
+    }
+    return (int) (origin + (nextLong() >>> 1) % range);
+  }
+
+  /**
+   * @return a new generator, whose values are independent from the ones
+   * of this generator but determined by its state.
+   */
+  public SplitMix split() {
+    long seed = nextLong();
+    state += gamma;
+    return new SplitMix(seed, mixGamma(state));
+  }
+
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  private static long mixGamma(long z) {
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    z = (z ^ (z >>> 33)) | 1L;
+    int transitions = Long.bitCount(z ^ (z >>> 1));
+    return (transitions < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+  }
+}
@@ -0,0 +1,77 @@
+package tools;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands values over from one writer thread to one reader thread without
+ * locking and without allocating. Three buffers are used: the writer fills
+ * the back buffer then publishes it, the reader reads the front buffer,
+ * and the third one sits in the middle, being the latest published buffer
+ * not yet taken by the reader. The buffers are swapped atomically, so the
+ * writer and the reader never access the same buffer at the same time.
+ *
+ * @param <T> the type of the buffers
+ */
+public class TripleBuffer<T> {
+
+  private static final int INDEX_MASK = 3;
+  private static final int FRESH = 4;
+
+  private final Object[] buffers;
+
+  /**
+   * The index of the buffer owned by the writer.
+   */
+  private int back = 0;
+
+  /**
+   * The index of the buffer owned by the reader.
+   */
+  private int front = 1;
+
+  /**
+   * The index of the middle buffer, with the FRESH bit set if it was
+   * published after the reader last took a buffer.
+   */
+  private final AtomicInteger middle = new AtomicInteger(2);
+
+  /**
+   * @param factory creates the three buffers
+   */
+  public TripleBuffer(Supplier<T> factory) {
+    buffers = new Object[]{factory.get(), factory.get(), factory.get()};
+  }
+
+  /**
+   * Must only be called by the writer.
+   *
+   * @return the buffer to fill before publishing it.
+   */
+  @SuppressWarnings("unchecked")
+  public T getBack() {
+    return (T) buffers[back];
+  }
+
+  /**
+   * Makes the back buffer available to the reader, and gives the writer
+   * another buffer to fill. Must only be called by the writer.
+   */
+  public void publish() {
+    back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+  }
+
+  /**
+   * Must only be called by the reader.
+   *
+   * @return the latest published buffer, which the writer will not touch
+   * until the reader calls this method again.
+   */
+  @SuppressWarnings("unchecked")
+  public T getFront() {
+    if ((middle.get() & FRESH) != 0) {
+      front = middle.getAndSet(front) & INDEX_MASK;
+    }
+    return (T) buffers[front];
+  }
+}
@@ -49,7 +49,7 @@ public class Vector {
    * @return the vector this - removed
    */
   public Vector subtract(Vector removed) {
-    return this.add(removed.negate());
+    return new Vector(this.getX() - removed.getX(), this.getY() - removed.getY());
   }
 
   /** Scalar multiplication of vectors
@@ -98,6 +98,17 @@ public class Vector {
   }
 
 
+  /** Rotating a vector around (0,0), writing the result into a mutable
+   * vector instead of allocating a new one
+   * @param degrees degrees of counterclockwise rotation
+   * @param result the vector receiving the rotated vector
+   * @return result
+   */
+  public MutableVector rotateInto(double degrees, MutableVector result) {
+    return result.set(this).rotateInPlace(degrees);
+  }
+
+
   /** Translating a point (considering this as a point)
    * @param displacement a vector of displacement
    * @return The point (as a vector) this + displacement
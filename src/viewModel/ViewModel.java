@@ -2,11 +2,20 @@ package viewModel;
 
 import game.Projectile;
 import game.Asteroid;
+import game.InputRecorder;
+import game.SimulationLoop;
 import game.Space;
+import game.SpaceJournal;
+import game.SpaceSnapshot;
 import game.Spaceship;
+import game.SpaceshipCommand;
 import views.View;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 
 /**
@@ -22,10 +31,154 @@ public class ViewModel {
 
   private Space gameState; // the model
   private View view; // the view
+  private final SpaceSnapshot snapshot = new SpaceSnapshot(); // what to draw
+  private boolean isSnapshotStale = false; // whether the game was updated since captured
+  private double lastTimeStep = 0; // the delay of the last update
+  private SimulationLoop simulationLoop; // null unless simulating on a dedicated thread
+  private final PublishedSnapshot published = new PublishedSnapshot(); // inspected when threaded
+
+  /**
+   * What the inspector shows of a simulation running on a dedicated thread:
+   * the last snapshot drawn, replaced whenever a newer one is read.
+   */
+  private static class PublishedSnapshot {
+    private SpaceSnapshot snapshot;
+  }
 
   public ViewModel(Space space, View view) {
     this.gameState = space;
     this.view = view;
+    snapshot.capture(space, 0);
+  }
+
+
+  /**
+   * Moves the simulation to a dedicated thread, advancing time by itself
+   * with fixed steps once resumed. Commands are then queued to that thread,
+   * and the view draws, inspects and queries the snapshots it publishes.
+   * Only the lists returned by getAsteroids and getProjectiles, and the
+   * spaceship returned by getSpaceship, are then not synchronized with
+   * the simulation.
+   *
+   * @param timeStep         the simulated delay of each step, in seconds
+   * @param maxStepsPerCycle the maximum number of steps simulated to catch up
+   */
+  public void startSimulationThread(double timeStep, int maxStepsPerCycle) {
+    simulationLoop = new SimulationLoop(gameState, timeStep, maxStepsPerCycle);
+    simulationLoop.start();
+  }
+
+  /**
+   * Records the commands given to the spaceship and the updates of the
+   * game in a file, with the state hash of each tick, so that the game
+   * can be replayed by headless.Replayer. It must be called before the
+   * game is first updated.
+   *
+   * @param path the file to write
+   * @throws IOException           if the file cannot be created
+   * @throws IllegalStateException if the game was already updated
+   */
+  public void startRecording(Path path) throws IOException {
+    InputRecorder recorder = new InputRecorder(Files.newOutputStream(path), true);
+    try {
+      if (simulationLoop == null) {
+        gameState.startRecording(recorder);
+      } else {
+        // waits for the simulation thread, so that a game already updated
+        // there fails here rather than there
+        simulationLoop.submit(space -> space.startRecording(recorder)).join();
+      }
+    } catch (CompletionException e) {
+      recorder.close();
+      throw (RuntimeException) e.getCause();
+    } catch (IllegalStateException e) {
+      recorder.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Keeps the recent history of the game in a memory-mapped file, to
+   * restore any of its last ticks with SpaceJournal.Reader.
+   *
+   * @param path the file to write
+   * @throws IOException if the file cannot be created
+   */
+  public void startJournal(Path path) throws IOException {
+    SpaceJournal journal = new SpaceJournal(path);
+    if (simulationLoop == null) {
+      gameState.startJournal(journal);
+    } else {
+      simulationLoop.submit(space -> space.startJournal(journal));
+    }
+  }
+
+  /**
+   * @return whether the simulation runs on a dedicated thread.
+   */
+  public boolean isSimulationThreaded() {
+    return simulationLoop != null;
+  }
+
+  /**
+   * Lets time advance on the simulation thread, if any.
+   */
+  public void resumeSimulation() {
+    if (simulationLoop != null) simulationLoop.resume();
+  }
+
+  /**
+   * Stops time from advancing on the simulation thread, if any.
+   */
+  public void pauseSimulation() {
+    if (simulationLoop != null) simulationLoop.pause();
+  }
+
+  /**
+   * Must always be called from the thread drawing the game. Without a
+   * simulation thread, the game is captured here, once for all the
+   * updates since the previous call, rather than after each update.
+   *
+   * @return the latest state of the game to draw.
+   */
+  public SpaceSnapshot getSnapshot() {
+    if (simulationLoop == null) {
+      if (isSnapshotStale) {
+        snapshot.capture(gameState, lastTimeStep);
+        isSnapshotStale = false;
+      }
+      return snapshot;
+    }
+    published.snapshot = simulationLoop.getSnapshot();
+    return published.snapshot;
+  }
+
+  /**
+   * The inspector walks the objects it shows from the thread drawing the
+   * game, so a simulation running on a dedicated thread is inspected
+   * through its latest snapshot rather than through the game state.
+   *
+   * @return the object to show in the inspector.
+   */
+  public Object getInspected() {
+    if (simulationLoop == null) {
+      return this;
+    }
+    getSnapshot();
+    return published;
+  }
+
+  /**
+   * Gives a command to the spaceship, through the simulation thread if any.
+   *
+   * @param command the command to give
+   */
+  private void issue(SpaceshipCommand command) {
+    if (simulationLoop == null) {
+      command.applyTo(gameState);
+    } else {
+      simulationLoop.submit(command::applyTo);
+    }
   }
 
 
@@ -34,87 +187,116 @@ public class ViewModel {
    * @param dt the time delay in seconds.
    */
   public void tick(double dt) {
-    gameState.update(dt);
+    update(dt);
     view.render();
   }
 
 
   /**
-   * Command to start the main engine of the player's spaceship
+   * Update the model after time delay dt, without redrawing the view.
+   * @param dt the time delay in seconds.
    */
-  public void startSpaceshipMainEngine() {
-    gameState.getSpaceship().startMainEngine();
+  public void update(double dt) {
+    if (simulationLoop == null) {
+      gameState.update(dt);
+      lastTimeStep = dt;
+      isSnapshotStale = true;
+    } else {
+      simulationLoop.submit(space -> space.update(dt));
+    }
   }
 
+
+  /**
+   * Command to start the main engine of the player's spaceship
+   */
+  public void startSpaceshipMainEngine() { issue(SpaceshipCommand.START_MAIN_ENGINE); }
+
   /**
    * Command to stop the main engine of the player's spaceship
    */
-  public void stopSpaceshipMainEngine() {
-    gameState.getSpaceship().stopMainEngine();
-  }
+  public void stopSpaceshipMainEngine() { issue(SpaceshipCommand.STOP_MAIN_ENGINE); }
 
   /**
    * Command to start the recoil engine of the player's spaceship
    */
-  public void startSpaceshipRecoilEngine() { gameState.getSpaceship().startRecoilEngine(); }
+  public void startSpaceshipRecoilEngine() { issue(SpaceshipCommand.START_RECOIL_ENGINE); }
 
   /**
    * Command to stop the recoil engine of the player's spaceship
    */
-  public void stopSpaceshipRecoilEngine() { gameState.getSpaceship().stopRecoilEngine(); }
+  public void stopSpaceshipRecoilEngine() { issue(SpaceshipCommand.STOP_RECOIL_ENGINE); }
 
   /**
    * Command to start the left lateral engine of the player's spaceship
    */
-  public void startSpaceshipLeftLateralEngine() { gameState.getSpaceship().startLeftLateralEngine(); }
+  public void startSpaceshipLeftLateralEngine() { issue(SpaceshipCommand.START_LEFT_LATERAL_ENGINE); }
 
   /**
    * Command to stop the left lateral engine of the player's spaceship
    */
-  public void stopSpaceshipLeftLateralEngine() { gameState.getSpaceship().stopLeftLateralEngine(); }
+  public void stopSpaceshipLeftLateralEngine() { issue(SpaceshipCommand.STOP_LEFT_LATERAL_ENGINE); }
 
   /**
    * Command to start the right lateral engine of the palyer's spaceship
    */
-  public void startSpaceshipRightLateralEngine() { gameState.getSpaceship().startRightLateralEngine(); }
+  public void startSpaceshipRightLateralEngine() { issue(SpaceshipCommand.START_RIGHT_LATERAL_ENGINE); }
 
   /**
    * Command to stop the right lateral engine of the player's spaceship
    */
-  public void stopSpaceshipRightLateralEngine() { gameState.getSpaceship().stopRightLateralEngine(); }
+  public void stopSpaceshipRightLateralEngine() { issue(SpaceshipCommand.STOP_RIGHT_LATERAL_ENGINE); }
 
   /**
    * @return whether the main engine of the spaceship is on
    */
-  public boolean isSpaceshipMainEngineOn() { return gameState.getSpaceship().isMainEngineOn(); }
+  public boolean isSpaceshipMainEngineOn() {
+    return (simulationLoop == null)
+      ? gameState.getSpaceship().isMainEngineOn()
+      : getSnapshot().isSpaceshipMainEngineOn();
+  }
 
   /**
    * @return whether the recoil engine of the spaceship is on
    */
-  public boolean isSpaceshipRecoilEngineOn() { return gameState.getSpaceship().isRecoilEngineOn(); }
+  public boolean isSpaceshipRecoilEngineOn() {
+    return (simulationLoop == null)
+      ? gameState.getSpaceship().isRecoilEngineOn()
+      : getSnapshot().isSpaceshipRecoilEngineOn();
+  }
 
   /**
    * @return whether the left lateral engine of the spaceship is on
    */
-  public boolean isSpaceshipLeftLateralEngineOn() { return gameState.getSpaceship().isLeftLateralEngineOn(); }
+  public boolean isSpaceshipLeftLateralEngineOn() {
+    return (simulationLoop == null)
+      ? gameState.getSpaceship().isLeftLateralEngineOn()
+      : getSnapshot().isSpaceshipLeftLateralEngineOn();
+  }
 
   /**
    * @return whether the right lateral engine of the spaceship is on
    */
-  public boolean isSpaceshipRightLateralEngineOn() { return gameState.getSpaceship().isRightLateralEngineOn();}
+  public boolean isSpaceshipRightLateralEngineOn() {
+    return (simulationLoop == null)
+      ? gameState.getSpaceship().isRightLateralEngineOn()
+      : getSnapshot().isSpaceshipRightLateralEngineOn();
+  }
 
   /**
    * @return whether the spaceship is invulnerable
    */
   public boolean isSpaceshipInvulnerable() {
-    return gameState.getSpaceship().isInvulnerable();
+    return (simulationLoop == null)
+      ? gameState.getSpaceship().isInvulnerable()
+      : getSnapshot().isSpaceshipInvulnerable();
   }
 
   /**
    * @return whether the game is over
    */
   public boolean isGameOver() {
-    return gameState.isGameOver();
+    return (simulationLoop == null) ? gameState.isGameOver() : getSnapshot().isGameOver();
   }
 
 
@@ -143,32 +325,48 @@ public class ViewModel {
   /**
    * @return the fuel percentage in the spaceship's tank
    */
-  public double getSpaceshipFuelPercentage() { return gameState.getSpaceship().getFuelPercentage(); }
+  public double getSpaceshipFuelPercentage() {
+    return (simulationLoop == null)
+      ? gameState.getSpaceship().getFuelPercentage()
+      : getSnapshot().getSpaceshipFuelPercentage();
+  }
 
   /**
    * @return the current score
    */
   public double getScore() {
-    return gameState.getScore().getValue();
+    return (simulationLoop == null) ? gameState.getScore().getValue() : getSnapshot().getScore();
   }
 
   /**
    * @return the invulnerability time of the spaceship
    */
   public double getSpaceshipInvulnerabilityTime() {
-    return gameState.getSpaceship().getInvulnerabilityTime();
+    return (simulationLoop == null)
+      ? gameState.getSpaceship().getInvulnerabilityTime()
+      : getSnapshot().getSpaceshipInvulnerabilityTime();
   }
 
   /**
    * @return the remaining life of the spaceship
    */
   public int getSpaceshipLife() {
-    return gameState.getSpaceship().getLife();
+    return (simulationLoop == null)
+      ? gameState.getSpaceship().getLife()
+      : getSnapshot().getSpaceshipLife();
   }
 
+  /**
+   * Fires through a command, so that the shot is recorded, and the
+   * projectile is taken from the pool of the space when it has one.
+   */
   public void fireSpaceshipGun() {
-    gameState.addProjectile(getSpaceship().fire());
+    issue(SpaceshipCommand.FIRE_GUN);
   }
 
-  public int getScoreMultiplier() { return gameState.getScore().getMultiplier(); }
+  public int getScoreMultiplier() {
+    return (simulationLoop == null)
+      ? gameState.getScore().getMultiplier()
+      : getSnapshot().getScoreMultiplier();
+  }
 }
@@ -1,20 +1,15 @@
 package views;
 
-import game.Asteroid;
-import game.Projectile;
-import game.Spaceship;
+import game.SpaceSnapshot;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
-import tools.Polygon;
-import tools.Vector;
 import viewModel.ViewModel;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 
@@ -42,23 +37,40 @@ public class CanvasView {
    * Refresh the canvas, using the current state of the game.
    */
    public void render() {
+    render(viewModel.getSnapshot(), 1);
+  }
+
+  /**
+   * Refresh the canvas, drawing the moving objects between their previous
+   * and current states.
+   *
+   * @param snapshot the state of the game to draw
+   * @param alpha the fraction of the last time step elapsed, between 0
+   *              (previous state) and 1 (current state).
+   */
+  public void render(SpaceSnapshot snapshot, double alpha) {
     clear();
     renderBackground();
-    render(viewModel.getAsteroids());
-    render(viewModel.getSpaceship());
-    renderScore(viewModel.getScore());
-    renderFuel(viewModel.getSpaceshipFuelPercentage());
+    renderAsteroids(snapshot, alpha);
+    renderSpaceship(snapshot, alpha);
+    renderScore(snapshot.getScore(), snapshot.getScoreMultiplier());
+    renderFuel(snapshot.getSpaceshipFuelPercentage());
   }
 
 
   /**
    * Render all the visible asteroids.
    *
-   * @param asteroids the list of visible asteroids
+   * @param snapshot the state of the game to draw
+   * @param alpha the fraction of the last time step elapsed
    */
-  private void render(List<Asteroid> asteroids) {
-    for (Asteroid asteroid : asteroids) {
-      render(asteroid);
+  private void renderAsteroids(SpaceSnapshot snapshot, double alpha) {
+    context.setFill(Color.BROWN);
+    for (int i = 0; i < snapshot.getAsteroidCount(); i++) {
+      int nbPoints = snapshot.getAsteroidVertexCount(i);
+      ensurePolygonCapacity(nbPoints);
+      snapshot.interpolateAsteroidShapeInto(i, alpha, polygonXs, polygonYs);
+      context.fillPolygon(polygonXs, polygonYs, nbPoints);
     }
   }
 
@@ -71,13 +83,14 @@ public class CanvasView {
 
   /**
    * @param score the score to render
+   * @param multiplier the score multiplier to render
    */
-  private void renderScore(double score) {
+  private void renderScore(double score, int multiplier) {
     context.setFill(Color.GREEN);
     context.setFont(font);
     String text = String.format("%d", Math.round(score));
     String text1 = String.format("%c",'x');
-    String text2 = String.format("%d",viewModel.getScoreMultiplier());
+    String text2 = String.format("%d",multiplier);
     context.fillText(text, 50,50);
     context.fillText(text1,50,110);
     context.fillText(text2,80,110);
@@ -117,40 +130,31 @@ public class CanvasView {
 
 
   /**
-   * @param asteroid an asteroid to display
+   * Buffers for the coordinates of the polygons to display, grown as needed.
    */
-  public void render(Asteroid asteroid) {
-    context.setFill(Color.BROWN);
-    render(asteroid.getShape());
-  }
-
+  private double[] polygonXs = new double[0];
+  private double[] polygonYs = new double[0];
 
   /**
-   * @param shape a polygon to display
+   * @param nbPoints the number of points the polygon buffers must hold
    */
-  private void render(Polygon shape) {
-    int nbPoints = shape.getVertices().size();
-    double[] xs = new double[nbPoints];
-    double[] ys = new double[nbPoints];
-    int i = 0;
-    for (Vector vertex : shape.getVertices()) {
-      xs[i] = vertex.getX();
-      ys[i] = vertex.getY();
-      i++;
+  private void ensurePolygonCapacity(int nbPoints) {
+    if (polygonXs.length < nbPoints) {
+      polygonXs = new double[nbPoints];
+      polygonYs = new double[nbPoints];
     }
-    context.fillPolygon(xs, ys, nbPoints);
   }
 
   /**
-   * @param spaceship a spaceship to display
+   * @param snapshot the state of the game to draw
+   * @param alpha the fraction of the last time step elapsed
    */
-  public void render(Spaceship spaceship) {
+  private void renderSpaceship(SpaceSnapshot snapshot, double alpha) {
     context.save();
-    Vector position = spaceship.getPosition();
-    context.translate(position.getX(), position.getY());
-    context.rotate(spaceship.getDirectionAngle());
+    context.translate(snapshot.getSpaceshipX(alpha), snapshot.getSpaceshipY(alpha));
+    context.rotate(snapshot.getSpaceshipDirectionAngle(alpha));
 
-    if (viewModel.isSpaceshipInvulnerable()) {
+    if (snapshot.isSpaceshipInvulnerable()) {
       context.setFill(Color.BEIGE);
       context.fillOval(-(double) PIXEL_SHIP_WIDTH / 2, -(double) PIXEL_SHIP_HEIGHT / 2, PIXEL_SHIP_WIDTH ,PIXEL_SHIP_HEIGHT);
       renderSpaceShipImage(context, getImage(spaceshipImg));
@@ -158,23 +162,21 @@ public class CanvasView {
     else
       renderSpaceShipImage(context, getImage(spaceshipImg));
 
-    renderEnginesImages();
+    renderEnginesImages(snapshot);
     context.restore();
-    renderLives(context, getImage(spaceshipImg));
-    for (Projectile projectile: viewModel.getProjectiles()) {
-      render(projectile);
-    }
+    renderLives(context, getImage(spaceshipImg), snapshot.getSpaceshipLife());
+    renderProjectiles(snapshot, alpha);
 
   }
 
-  private void renderEnginesImages() {
-    if(viewModel.isSpaceshipMainEngineOn())
+  private void renderEnginesImages(SpaceSnapshot snapshot) {
+    if(snapshot.isSpaceshipMainEngineOn())
       renderSpaceShipImage(context, getImage(engineBurningImg));
-    if(viewModel.isSpaceshipRecoilEngineOn())
+    if(snapshot.isSpaceshipRecoilEngineOn())
       renderSpaceShipImage(context, getImage(reverseBurningImg));
-    if(viewModel.isSpaceshipLeftLateralEngineOn())
+    if(snapshot.isSpaceshipLeftLateralEngineOn())
       renderSpaceShipImage(context, getImage(counterclockwiseBurningImg));
-    if(viewModel.isSpaceshipRightLateralEngineOn())
+    if(snapshot.isSpaceshipRightLateralEngineOn())
       renderSpaceShipImage(context, getImage(clockwiseBurningImg));
   }
 
@@ -194,22 +196,27 @@ public class CanvasView {
       PIXEL_SHIP_HEIGHT);
   }
 
-  private void renderLives(GraphicsContext context, Image img) {
+  private void renderLives(GraphicsContext context, Image img, int life) {
     double abscissa = 690;
     double ordered = 30;
     double width = 30;
     double height = 20;
 
-    for (int i = 0; i < viewModel.getSpaceshipLife() ; i++) {
+    for (int i = 0; i < life ; i++) {
       context.drawImage(img, abscissa, ordered, width, height);
-      if (i < viewModel.getSpaceshipLife()-1)
+      if (i < life-1)
         abscissa += 40;
     }
   }
 
-  private void render(Projectile bullet) {
+  private void renderProjectiles(SpaceSnapshot snapshot, double alpha) {
     context.setFill(Color.YELLOW);
-    context.fillOval(bullet.getPosition().getX(), bullet.getPosition().getY(), 4, 4);
+    for (int i = 0; i < snapshot.getProjectileCount(); i++) {
+      context.fillOval(
+        snapshot.getProjectileX(i, alpha),
+        snapshot.getProjectileY(i, alpha),
+        4, 4);
+    }
 
   }
 
@@ -2,6 +2,7 @@ package views;
 
 import viewModel.ViewModel;
 import game.Space;
+import game.SpaceConfiguration;
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -19,8 +20,8 @@ import java.net.URL;
 public class Main extends Application {
 
 
-  public final static int CANVAS_WIDTH = (int) Space.SPACE_WIDTH;
-  public final static int CANVAS_HEIGHT = (int) Space.SPACE_HEIGHT;
+  public final static int CANVAS_WIDTH = (int) SpaceConfiguration.DEFAULT.getWidth();
+  public final static int CANVAS_HEIGHT = (int) SpaceConfiguration.DEFAULT.getHeight();
   public final static int WINDOW_WIDTH = 1200;
 
   private AnimationTimer timer;
@@ -1,27 +1,75 @@
 package views;
 
 import javafx.animation.AnimationTimer;
+import tools.FixedStepAccumulator;
 
+/**
+ * Drives the game from the animation frames of JavaFX. The simulation
+ * advances by fixed time steps, independently of the frame rate: the
+ * time elapsed between frames is accumulated, and consumed by as many
+ * steps as it contains. The remaining fraction of a step is used to draw
+ * the game between the last two simulated states. After a long pause
+ * (a slow frame or a garbage collection), at most a given number of steps
+ * are simulated and the rest of the delay is dropped, so that the game
+ * slows down instead of freezing.
+ * <p>
+ * When the simulation runs on its own thread, the timer only redraws the
+ * latest state published by that thread, at every frame.
+ */
 public class Timer extends AnimationTimer {
 
+  /**
+   * The default simulated delay of each step, in seconds.
+   */
+  public static final double DEFAULT_TIME_STEP = 1. / 120;
+
+  /**
+   * The default maximum number of steps simulated for one frame.
+   */
+  public static final int DEFAULT_MAX_STEPS_PER_FRAME = 8;
+
   private long lastTick = -1;
   private final View view;
   private boolean isStopped = true;
+  private final FixedStepAccumulator accumulator;
 
   public Timer(View view) {
+    this(view, DEFAULT_TIME_STEP, DEFAULT_MAX_STEPS_PER_FRAME);
+  }
+
+  /**
+   * @param view             the view to update and render
+   * @param timeStep         the simulated delay of each step, in seconds
+   * @param maxStepsPerFrame the maximum number of steps simulated for one frame
+   */
+  public Timer(View view, double timeStep, int maxStepsPerFrame) {
     this.view = view;
+    this.accumulator = new FixedStepAccumulator(timeStep, maxStepsPerFrame);
   }
 
   @Override
   public void handle(long now) {
+    if (view.isSimulationThreaded()) {
+      view.renderLatest();
+      if (!isStopped && view.isGameOver()) {
+        stop();
+      }
+      return;
+    }
     if (isStopped) { return; }
     if (lastTick < 0) {
       lastTick = now;
       return;
     }
-    double dt = (now - lastTick) * 1e-9;
+    int steps = accumulator.advance((now - lastTick) * 1e-9);
     lastTick = now;
-    view.tick(dt);
+    for (int i = 0; i < steps; i++) {
+      view.update(accumulator.getTimeStep());
+    }
+    view.render(accumulator.getAlpha());
+    if (view.isGameOver()) {
+      stop();
+    }
   }
 
   public boolean isStopped() {
@@ -30,6 +78,7 @@ public class Timer extends AnimationTimer {
 
   public void stop() {
     lastTick = -1;
+    accumulator.reset();
     isStopped = true;
   }
 
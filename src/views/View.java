@@ -1,5 +1,6 @@
 package views;
 
+import game.SpaceSnapshot;
 import inspector.Inspections;
 import viewModel.ViewModel;
 import inspector.ObjectInspection;
@@ -12,6 +13,8 @@ import javafx.scene.control.TreeView;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -103,9 +106,37 @@ public class View {
 
   private final Timer timer = new Timer(this);
 
+  /**
+   * Set this system property to true (-Dasteroids.simulationThread=true)
+   * to run the simulation on a dedicated thread instead of the JavaFX
+   * application thread.
+   */
+  private static final String SIMULATION_THREAD_PROPERTY = "asteroids.simulationThread";
+
+  /**
+   * Set this system property (-Dasteroids.inspectorRefreshRate=5) to
+   * change how many times per second the inspector is refreshed, 0
+   * meaning on every frame.
+   */
+  private static final String INSPECTOR_REFRESH_RATE_PROPERTY = "asteroids.inspectorRefreshRate";
+
+  /**
+   * Set this system property (-Dasteroids.recording=game.rec) to record
+   * the game in a file, to replay it with headless.Replayer.
+   */
+  private static final String RECORDING_PROPERTY = "asteroids.recording";
+
+  /**
+   * Set this system property (-Dasteroids.journal=game.journal) to keep
+   * the last minutes of the game in a file, to restore any of its ticks.
+   */
+  private static final String JOURNAL_PROPERTY = "asteroids.journal";
+
 
   /**
-   * Method called by the animation timer when the scene must be updated.
+   * Advances the game by a single step of dt seconds and redraws it, as
+   * done by the step button. The animation timer instead simulates fixed
+   * steps with update, then calls render.
    *
    * @param dt how much time spent since last tick, in seconds.
    */
@@ -123,20 +154,67 @@ public class View {
    *
    * @param dt the delay since last update.
    */
-  private void update(double dt) {
-    viewModel.tick(dt);
+  void update(double dt) {
+    viewModel.update(dt);
   }
 
 
   /**
-   * Redraw the scene.
+   * Redraw the scene, refreshing the inspector immediately.
    */
   public void render() {
-    canvasView.render();
+    canvasView.render(viewModel.getSnapshot(), 1);
+    inspectionView.refresh();
+  }
+
+
+  /**
+   * Redraw the scene between the last two states of the game.
+   *
+   * @param alpha the fraction of the last time step elapsed, between 0
+   *              (previous state) and 1 (current state).
+   */
+  public void render(double alpha) {
+    render(viewModel.getSnapshot(), alpha);
+  }
+
+
+  /**
+   * Redraw the scene from the latest state published by the simulation
+   * thread, interpolating according to the time elapsed since then.
+   */
+  void renderLatest() {
+    SpaceSnapshot snapshot = viewModel.getSnapshot();
+    render(snapshot, snapshot.getInterpolationFactor(System.nanoTime()));
+  }
+
+
+  private void render(SpaceSnapshot snapshot, double alpha) {
+    canvasView.render(snapshot, alpha);
     inspectionView.render();
   }
 
 
+  /**
+   * @return the number of refreshes per second of the inspector.
+   */
+  private static double getInspectorRefreshRate() {
+    String rate = System.getProperty(INSPECTOR_REFRESH_RATE_PROPERTY);
+    return (rate == null) ?
+      inspector.View.DEFAULT_REFRESH_RATE :
+      Double.parseDouble(rate);
+  }
+
+
+  /**
+   * @return whether the simulation runs on its own thread, rather than
+   * being driven by the animation timer.
+   */
+  boolean isSimulationThreaded() {
+    return viewModel.isSimulationThreaded();
+  }
+
+
 
   /**
    * Initialize the view: canvas, button and event handlers, and start the timer.
@@ -145,12 +223,36 @@ public class View {
    */
   public void initialize(ViewModel viewModel) {
     this.viewModel = viewModel;
+    String recording = System.getProperty(RECORDING_PROPERTY);
+    if (recording != null) {
+      try {
+        viewModel.startRecording(Path.of(recording));
+      } catch (IOException | IllegalStateException e) {
+        System.err.println("cannot record the game: " + e.getMessage());
+      }
+    }
+    String journal = System.getProperty(JOURNAL_PROPERTY);
+    if (journal != null) {
+      try {
+        viewModel.startJournal(Path.of(journal));
+      } catch (IOException e) {
+        System.err.println("cannot journal the game: " + e.getMessage());
+      }
+    }
+    if (Boolean.getBoolean(SIMULATION_THREAD_PROPERTY)) {
+      viewModel.startSimulationThread(
+        Timer.DEFAULT_TIME_STEP,
+        Timer.DEFAULT_MAX_STEPS_PER_FRAME);
+    }
     canvasView = new CanvasView(canvas, viewModel);
    for (String packageName : inspectablePackages) {
       Inspections.addAuthorizedPackage(packageName);
     }
      inspectionView =
-      new inspector.View(treeView, new ObjectInspection("model", viewModel));
+      new inspector.View(
+        treeView,
+        new ObjectInspection("model", viewModel.getInspected()),
+        getInspectorRefreshRate());
     canvas.setWidth(Main.CANVAS_WIDTH);
     canvas.setHeight(Main.CANVAS_HEIGHT);
     render();
@@ -193,10 +295,12 @@ public class View {
   private void handleRunClicked(MouseEvent mouseEvent) {
     if (timer.isStopped()) {
       timer.restart();
+      viewModel.resumeSimulation();
       runButton.setText("Stop");
       stepButton.setVisible(false);
     } else {
       timer.stop();
+      viewModel.pauseSimulation();
       runButton.setText("Continue");
       stepButton.setVisible(true);
     }
@@ -0,0 +1,66 @@
+package game;
+
+import tools.Polygon;
+import tools.Vector;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ArrayAsteroidStoreTest {
+
+    private static Asteroid asteroid(double x, double y) {
+        Polygon shape =
+                new Polygon(List.of(
+                   new Vector(-5,-5),
+                   new Vector(5,-5),
+                   new Vector(4,2),
+                   new Vector(-6,4)
+                ));
+        return new Asteroid(new Vector(x,y), shape, new Vector(10,-20), 90, 1);
+    }
+
+    @org.junit.Test
+    public void movesLikeListStore() {
+        AsteroidStore arrays = new ArrayAsteroidStore();
+        AsteroidStore list = new ListAsteroidStore();
+        for (int i = 0; i < 50; i++) {
+            arrays.add(asteroid(16 * i, 790 - 3 * i));
+            list.add(asteroid(16 * i, 790 - 3 * i));
+        }
+        for (int tick = 0; tick < 100; tick++) {
+            arrays.update(0.1);
+            list.update(0.1);
+        }
+        for (int i = 0; i < 50; i++) {
+            Asteroid expected = list.asList().get(i);
+            Asteroid actual = arrays.asList().get(i);
+            assertEquals(expected.getPosition().getX(), actual.getPositionX(), 1e-9);
+            assertEquals(expected.getPosition().getY(), actual.getPositionY(), 1e-9);
+            assertEquals(expected.getShape().contains(new Vector(expected.getPositionX(), expected.getPositionY() + 1)),
+                         actual.contains(new Vector(actual.getPositionX(), actual.getPositionY() + 1)));
+        }
+    }
+
+    @org.junit.Test
+    public void removeAllKeepsOrder() {
+        AsteroidStore store = new ArrayAsteroidStore();
+        Asteroid first = asteroid(10, 10);
+        Asteroid second = asteroid(20, 20);
+        Asteroid third = asteroid(30, 30);
+        store.add(first);
+        store.add(second);
+        store.add(third);
+
+        store.removeAll(Set.of(first));
+        store.update(1);
+
+        assertEquals(List.of(second, third), store.asList());
+        assertEquals(40, third.getPositionX(), 1e-9);
+        assertEquals(10, first.getPositionX(), 1e-9);
+        first.update(1);
+        assertEquals(20, first.getPositionX(), 1e-9);
+    }
+
+}
@@ -0,0 +1,29 @@
+package game;
+
+import static org.junit.Assert.*;
+
+public class BroadPhaseTest {
+
+    private static Space space(boolean isBroadPhaseEnabled) {
+        Space space = new Space(SpaceConfiguration.DEFAULT, new ListAsteroidStore(), 25);
+        space.setBroadPhaseEnabled(isBroadPhaseEnabled);
+        // enough projectiles for several asteroids to be hit in the same update
+        RandomProjectiles.addTo(space, 3000, 3000, 3);
+        return space;
+    }
+
+    @org.junit.Test
+    public void broadPhaseFindsTheSameHits() {
+        Space gridded = space(true);
+        Space bruteForce = space(false);
+        int initialCount = gridded.getAsteroids().size();
+        for (int i = 0; i < 120; i++) {
+            gridded.update(1. / 60);
+            bruteForce.update(1. / 60);
+            assertEquals(bruteForce.getScore().getValue(), gridded.getScore().getValue(), 0);
+            assertEquals(bruteForce.stateHash(), gridded.stateHash());
+        }
+        assertTrue(gridded.getAsteroids().size() != initialCount);
+    }
+
+}
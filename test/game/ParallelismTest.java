@@ -0,0 +1,34 @@
+package game;
+
+import static org.junit.Assert.*;
+
+public class ParallelismTest {
+
+    private static Space space(int parallelism) {
+        // just enough asteroids and projectiles for every loop to be split
+        SpaceConfiguration configuration = SpaceConfiguration.DEFAULT.withSameDensity(5000);
+        Space space = new Space(configuration, new ArrayAsteroidStore(configuration), 42);
+        space.setParallelism(parallelism);
+        RandomProjectiles.addTo(space, 2500, 100, 1);
+        return space;
+    }
+
+    @org.junit.Test
+    public void parallelUpdateIsIdentical() {
+        Space sequential = space(1);
+        for (int i = 0; i < 120; i++) {
+            sequential.update(1. / 60);
+        }
+        Space parallel = space(4);
+        try {
+            for (int i = 0; i < 120; i++) {
+                parallel.update(1. / 60);
+            }
+        } finally {
+            parallel.shutdown();
+        }
+        assertEquals(sequential.getAsteroids().size(), parallel.getAsteroids().size());
+        assertEquals(sequential.stateHash(), parallel.stateHash());
+    }
+
+}
@@ -0,0 +1,57 @@
+package game;
+
+import tools.Polygon;
+import tools.Vector;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProjectileTest {
+
+    @org.junit.Test
+    public void fastProjectileHitsSmallAsteroid() {
+        Polygon shape =
+                new Polygon(List.of(
+                   new Vector(-3,-3),
+                   new Vector(3,-3),
+                   new Vector(3,3),
+                   new Vector(-3,3)
+                ));
+        Asteroid asteroid = new Asteroid(
+                new Vector(100,100),
+                shape,
+                new Vector(0,0),
+                0,
+                1
+        );
+
+        // steps over the asteroid in a single update
+        Projectile projectile = new Projectile(new Vector(50,100), new Vector(1000,0));
+        projectile.update(0.1);
+        assertFalse(asteroid.contains(projectile.getPositionX(), projectile.getPositionY()));
+        assertTrue(projectile.Hits(asteroid));
+
+        Projectile missing = new Projectile(new Vector(50,110), new Vector(1000,0));
+        missing.update(0.1);
+        assertFalse(missing.Hits(asteroid));
+    }
+
+    @org.junit.Test
+    public void deadProjectilesAreReused() {
+        Space space = new Space(SpaceConfiguration.DEFAULT, new ListAsteroidStore(), 0);
+        space.fireSpaceshipGun();
+        Projectile projectile = space.getProjectiles().get(0);
+        for (int i = 0; i < 700 && !space.getProjectiles().isEmpty(); i++) {
+            space.update(1. / 60);
+        }
+        assertTrue(space.getProjectiles().isEmpty());
+        assertEquals(1, space.getProjectilePool().getMisses());
+
+        space.fireSpaceshipGun();
+        assertSame(projectile, space.getProjectiles().get(0));
+        assertTrue(projectile.isAlive());
+        assertEquals(1, space.getProjectilePool().getHits());
+    }
+
+}
@@ -0,0 +1,40 @@
+package game;
+
+import tools.Polygon;
+
+import static org.junit.Assert.*;
+
+public class RandomGeneratorTest {
+
+    @org.junit.Test
+    public void sameSeedSameSpace() {
+        SpaceConfiguration configuration = SpaceConfiguration.DEFAULT.withInitialAsteroidCount(50);
+        Space space = new Space(configuration, new ListAsteroidStore(), 7);
+        Space replay = new Space(configuration, new ListAsteroidStore(), 7);
+
+        assertEquals(space.getAsteroids().size(), replay.getAsteroids().size());
+        for (int i = 0; i < space.getAsteroids().size(); i++) {
+            Asteroid asteroid = space.getAsteroids().get(i);
+            Asteroid replayed = replay.getAsteroids().get(i);
+            assertEquals(asteroid.getPositionX(), replayed.getPositionX(), 0);
+            assertEquals(asteroid.getPositionY(), replayed.getPositionY(), 0);
+            assertEquals(asteroid.getVelocity().getX(), replayed.getVelocity().getX(), 0);
+            assertEquals(asteroid.getAngularVelocity(), replayed.getAngularVelocity(), 0);
+        }
+    }
+
+    @org.junit.Test
+    public void splitIsDeterministic() {
+        RandomGenerator generator = new RandomGenerator(SpaceConfiguration.DEFAULT, 3).split();
+        RandomGenerator replay = new RandomGenerator(SpaceConfiguration.DEFAULT, 3).split();
+
+        Polygon polygon = generator.polygon(5, 12, 2);
+        Polygon replayed = replay.polygon(5, 12, 2);
+        assertEquals(polygon.getVertices().size(), replayed.getVertices().size());
+        for (int i = 0; i < polygon.getVertices().size(); i++) {
+            assertEquals(polygon.getVertices().get(i).getX(), replayed.getVertices().get(i).getX(), 0);
+            assertEquals(polygon.getVertices().get(i).getY(), replayed.getVertices().get(i).getY(), 0);
+        }
+    }
+
+}
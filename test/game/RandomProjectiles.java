@@ -0,0 +1,34 @@
+package game;
+
+import tools.Vector;
+
+import java.util.Random;
+
+/**
+ * Scatters projectiles over a space with a seeded generator, for the
+ * tests needing many hits in the same update.
+ */
+final class RandomProjectiles {
+
+    private RandomProjectiles() {
+    }
+
+    /**
+     * @param space the space to add projectiles to
+     * @param count the number of projectiles
+     * @param speed the standard deviation of each coordinate of their
+     *              velocities
+     * @param seed  the seed of their positions and velocities
+     */
+    static void addTo(Space space, int count, double speed, long seed) {
+        SpaceConfiguration configuration = space.getConfiguration();
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++) {
+            space.addProjectile(new Projectile(
+                    new Vector(random.nextDouble() * configuration.getWidth(),
+                               random.nextDouble() * configuration.getHeight()),
+                    new Vector(random.nextGaussian() * speed, random.nextGaussian() * speed)));
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package game;
+
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+public class SimulationLoopTest {
+
+    @org.junit.Test
+    public void survivesFailingTasks() {
+        Space space = new Space(SpaceConfiguration.DEFAULT, new ListAsteroidStore(), 1);
+        SimulationLoop loop = new SimulationLoop(space, 1. / 60, 5);
+        loop.start();
+        try {
+            loop.submit(updated -> updated.update(1. / 60)).join();
+            try {
+                loop.submit(updated -> updated.startRecording(null)).join();
+                fail("recording an updated space should fail");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            long hash = space.stateHash();
+            loop.submit(updated -> updated.update(1. / 60)).join();
+            assertTrue(space.stateHash() != hash);
+        } finally {
+            loop.stop();
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package game;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class SpaceJournalTest {
+
+    private static final double DT = 1. / 120;
+
+    @org.junit.Test
+    public void restoresRecentTicks() throws Exception {
+        Path path = Files.createTempFile("space", ".journal");
+        try {
+            Space space = new Space(SpaceConfiguration.DEFAULT, new ListAsteroidStore(), 3);
+            SpaceJournal journal = new SpaceJournal(path, 1 << 16, 0.5);
+            space.startJournal(journal);
+            int ticks = 3000;
+            long[] hashes = new long[ticks + 1];
+            hashes[0] = space.stateHash();
+            SpaceshipCommand.START_MAIN_ENGINE.applyTo(space);
+            for (int tick = 0; tick < ticks; tick++) {
+                if (tick % 25 == 0) {
+                    SpaceshipCommand.FIRE_GUN.applyTo(space);
+                }
+                space.update(DT);
+                hashes[tick + 1] = space.stateHash();
+            }
+            space.stopJournal();
+
+            SpaceJournal.Reader reader = SpaceJournal.Reader.open(path);
+            assertTrue(reader.getFirstTick() > 0);
+            assertEquals(ticks, reader.getLastTick());
+            long first = reader.getFirstTick();
+            for (long tick : new long[]{first, first + 1, (first + ticks) / 2, ticks}) {
+                Space restored = reader.spaceAt(tick, ArrayAsteroidStore::new);
+                assertEquals(hashes[(int) tick], restored.stateHash());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @org.junit.Test
+    public void disablesKeyframesTooLargeToStage() throws Exception {
+        Path path = Files.createTempFile("space", ".journal");
+        try {
+            SpaceConfiguration configuration = SpaceConfiguration.DEFAULT.withInitialAsteroidCount(1000);
+            Space space = new Space(configuration, new ListAsteroidStore(), 3);
+            SpaceJournal journal = new SpaceJournal(path, 1 << 16, 0.5);
+            space.startJournal(journal);
+            assertTrue(journal.areKeyframesDisabled());
+            for (int tick = 0; tick < 100; tick++) {
+                space.update(DT);
+            }
+            space.stopJournal();
+            assertEquals(1, journal.getDroppedRecords());
+            assertEquals(-1, SpaceJournal.Reader.open(path).getFirstTick());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package game;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class SpaceSerializerTest {
+
+    private static final double DT = 1. / 120;
+
+    private static void play(Space space, int ticks) {
+        for (int tick = 0; tick < ticks; tick++) {
+            if (tick % 20 == 0) {
+                SpaceshipCommand.FIRE_GUN.applyTo(space);
+            }
+            space.update(DT);
+        }
+    }
+
+    @org.junit.Test
+    public void loadedSpaceEvolvesLikeTheSavedOne() {
+        Space space = new Space(SpaceConfiguration.DEFAULT, new ListAsteroidStore(), 5);
+        SpaceshipCommand.START_MAIN_ENGINE.applyTo(space);
+        SpaceshipCommand.START_RIGHT_LATERAL_ENGINE.applyTo(space);
+        play(space, 300);
+
+        ByteBuffer saved = SpaceSerializer.save(space);
+        assertEquals(SpaceSerializer.sizeOf(space), saved.remaining());
+        Space loaded = SpaceSerializer.load(saved, ArrayAsteroidStore::new);
+
+        assertEquals(space.stateHash(), loaded.stateHash());
+        assertEquals(space.getProjectiles().size(), loaded.getProjectiles().size());
+        play(space, 600);
+        play(loaded, 600);
+        assertEquals(space.stateHash(), loaded.stateHash());
+        assertEquals(space.getScore().getValue(), loaded.getScore().getValue(), 0);
+    }
+
+    @org.junit.Test
+    public void truncatedSpaceIsRejected() {
+        ByteBuffer saved = SpaceSerializer.save(new Space(SpaceConfiguration.DEFAULT, new ListAsteroidStore(), 5));
+        saved.limit(saved.limit() - 1);
+        try {
+            SpaceSerializer.load(saved);
+            fail("a truncated space was loaded");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("truncated"));
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package headless;
+
+import game.InputRecorder;
+import game.ListAsteroidStore;
+import game.Projectile;
+import game.Space;
+import game.SpaceConfiguration;
+import game.SpaceshipCommand;
+import tools.Vector;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class ReplayerTest {
+
+    private static final double DT = 1. / 120;
+
+    private static Space recordedSpace(ByteArrayOutputStream log) {
+        Space space = new Space(SpaceConfiguration.DEFAULT, new ListAsteroidStore(), 11);
+        space.startRecording(new InputRecorder(log, true));
+        SpaceshipCommand.START_MAIN_ENGINE.applyTo(space);
+        SpaceshipCommand.START_LEFT_LATERAL_ENGINE.applyTo(space);
+        for (int tick = 0; tick < 600; tick++) {
+            if (tick % 30 == 0) {
+                SpaceshipCommand.FIRE_GUN.applyTo(space);
+            }
+            if (tick == 200) {
+                SpaceshipCommand.STOP_LEFT_LATERAL_ENGINE.applyTo(space);
+            }
+            space.update(DT);
+        }
+        return space;
+    }
+
+    @org.junit.Test
+    public void replayIsIdentical() {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Space space = recordedSpace(log);
+        space.stopRecording();
+
+        Replayer replayer = new Replayer(ByteBuffer.wrap(log.toByteArray()), true);
+        RunReport report = replayer.run();
+
+        assertEquals(600, report.getTicks());
+        assertEquals(-1, replayer.getDivergentTick());
+        assertEquals(space.stateHash(), replayer.getSpace().stateHash());
+    }
+
+    @org.junit.Test
+    public void divergenceIsDetected() {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Space space = recordedSpace(log);
+        space.addProjectile(new Projectile(new Vector(10, 10), new Vector(50, 0)));
+        space.update(DT);
+        space.update(DT);
+        space.stopRecording();
+
+        Replayer replayer = new Replayer(ByteBuffer.wrap(log.toByteArray()), false);
+        replayer.run();
+
+        assertEquals(600, replayer.getDivergentTick());
+    }
+
+}
@@ -0,0 +1,63 @@
+package tools;
+
+import game.RandomGenerator;
+import game.SpaceConfiguration;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PolygonTest {
+
+    @org.junit.Test
+    public void contains() {
+        Polygon square =
+                new Polygon(List.of(
+                   new Vector(-5,-5),
+                   new Vector(5,-5),
+                   new Vector(5,5),
+                   new Vector(-5,5)
+                ));
+
+        assertTrue(square.contains(new Vector(0,0)));
+        assertTrue(square.contains(new Vector(4,-4)));
+        assertFalse(square.contains(new Vector(6,0)));
+        assertFalse(square.contains(new Vector(0,-6)));
+        assertFalse(square.contains(new Vector(20,20)));
+    }
+
+    @org.junit.Test
+    public void meetsSegment() {
+        double[] xs = {-5, 5, 5, -5};
+        double[] ys = {-5, -5, 5, 5};
+
+        assertTrue(Polygon.meetsSegment(xs, ys, 4, -20, 0, 20, 0));
+        assertTrue(Polygon.meetsSegment(xs, ys, 4, -20, -20, 20, 20));
+        assertTrue(Polygon.meetsSegment(xs, ys, 4, -1, -1, 1, 1));
+        assertTrue(Polygon.meetsSegment(xs, ys, 4, 0, 0, 0, 20));
+        assertFalse(Polygon.meetsSegment(xs, ys, 4, -20, 6, 20, 6));
+        assertFalse(Polygon.meetsSegment(xs, ys, 4, 6, -20, 6, 20));
+        assertFalse(Polygon.meetsSegment(xs, ys, 4, -20, 0, -6, 0));
+    }
+
+    @org.junit.Test
+    public void containsAgreesWithWindingAngle() {
+        RandomGenerator generator = new RandomGenerator(SpaceConfiguration.DEFAULT, 42);
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            Polygon polygon = generator.polygon(5, 12, 2);
+            for (int j = 0; j < 100; j++) {
+                Vector point = new Vector(
+                        random.nextDouble() * 100 - 50,
+                        random.nextDouble() * 100 - 50
+                );
+                assertEquals(
+                        polygon.containsByWindingAngle(point),
+                        polygon.contains(point)
+                );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package tools;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RotationTest {
+
+    @org.junit.Test
+    public void agreesWithVectorRotate() {
+        Random random = new Random(42);
+        Rotation rotation = new Rotation();
+        for (int i = 0; i < 100; i++) {
+            Vector point = new Vector(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50);
+            Vector direction = new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+            double angle = direction.angle();
+            Vector expected = point.rotate(angle);
+
+            rotation.setAngle(angle);
+            assertEquals(expected.getX(), rotation.rotateX(point.getX(), point.getY()), 1e-9);
+            assertEquals(expected.getY(), rotation.rotateY(point.getX(), point.getY()), 1e-9);
+
+            rotation.setDirection(direction.getX(), direction.getY());
+            assertEquals(expected.getX(), rotation.rotateX(point.getX(), point.getY()), 1e-9);
+            assertEquals(expected.getY(), rotation.rotateY(point.getX(), point.getY()), 1e-9);
+        }
+    }
+
+}
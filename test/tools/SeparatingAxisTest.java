@@ -0,0 +1,48 @@
+package tools;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SeparatingAxisTest {
+
+    @org.junit.Test
+    public void convexHull() {
+        Polygon hull = SeparatingAxis.convexHull(List.of(
+                new Vector(0,0),
+                new Vector(-5,-5),
+                new Vector(1,2),
+                new Vector(5,-5),
+                new Vector(5,5),
+                new Vector(0,5),
+                new Vector(-5,5)
+        ));
+
+        assertEquals(4, hull.nbVertices());
+        assertTrue(hull.contains(new Vector(4,4)));
+        assertFalse(hull.contains(new Vector(6,0)));
+    }
+
+    @org.junit.Test
+    public void intersectsStarShaped() {
+        double[] squareXs = {-5, 5, 5, -5};
+        double[] squareYs = {-5, -5, 5, 5};
+        // a star centered on (20,0) with a thin spike reaching (4,0)
+        double[] starXs = {30, 20, 4, 20, 20};
+        double[] starYs = {0, 10, 0, -0.5, -10};
+
+        assertTrue(SeparatingAxis.intersectsStarShaped(squareXs, squareYs, 4, 20, 0, starXs, starYs, 5));
+        assertFalse(Polygon.contains(starXs, starYs, 5, 5, 5));
+        assertFalse(Polygon.contains(starXs, starYs, 5, 5, -5));
+
+        starXs[2] = 6;
+        assertFalse(SeparatingAxis.intersectsStarShaped(squareXs, squareYs, 4, 20, 0, starXs, starYs, 5));
+
+        double[] triangleXs = {4, 10, 10};
+        double[] triangleYs = {0, -3, 3};
+        assertTrue(SeparatingAxis.convexPolygonsIntersect(squareXs, squareYs, 4, triangleXs, triangleYs, 3));
+        triangleXs[0] = 6;
+        assertFalse(SeparatingAxis.convexPolygonsIntersect(squareXs, squareYs, 4, triangleXs, triangleYs, 3));
+    }
+
+}